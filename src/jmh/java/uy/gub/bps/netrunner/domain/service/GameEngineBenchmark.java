@@ -0,0 +1,61 @@
+package uy.gub.bps.netrunner.domain.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uy.gub.bps.netrunner.domain.model.GameState;
+import uy.gub.bps.netrunner.domain.model.SpatialIndexType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameEngineBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int players;
+
+    @Param({"10"})
+    private int sentinelsPerPlayer;
+
+    @Param({"500", "5000"})
+    private int projectiles;
+
+    @Param({"QUADTREE", "GRID"})
+    private SpatialIndexType spatialIndex;
+
+    private SyntheticWorld world;
+    private List<Integer> playerIds;
+    private int nextPlayer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new SyntheticWorld(players, sentinelsPerPlayer, projectiles, spatialIndex);
+        playerIds = world.getPlayerIds();
+    }
+
+    @Benchmark
+    public void update() {
+        world.tick();
+    }
+
+    @Benchmark
+    public GameState currentState() {
+        int playerId = playerIds.get(nextPlayer++ % playerIds.size());
+        return world.getEngine().getCurrentState(playerId);
+    }
+}
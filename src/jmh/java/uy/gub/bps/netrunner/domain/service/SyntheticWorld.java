@@ -0,0 +1,50 @@
+package uy.gub.bps.netrunner.domain.service;
+
+import uy.gub.bps.netrunner.domain.model.InputMessage;
+import uy.gub.bps.netrunner.domain.model.SpatialIndexType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Mundo con carga sintética para los benchmarks: jugadores en movimiento, centinelas y proyectiles en vuelo
+public class SyntheticWorld {
+    private static final String[] DIRECTIONS = {"UP", "DOWN", "LEFT", "RIGHT"};
+    private static final int WARMUP_TICKS = 60;
+
+    private final GameEngineImpl engine;
+    private final List<Integer> playerIds = new ArrayList<>();
+    private final int projectiles;
+
+    public SyntheticWorld(int players, int sentinelsPerPlayer, int projectiles, SpatialIndexType spatialIndex) {
+        this.engine = new GameEngineImpl(30, spatialIndex, 0);
+        this.projectiles = projectiles;
+        engine.setSentinelsPerPlayer(sentinelsPerPlayer);
+
+        Random random = new Random(42);
+        for (int i = 0; i < players; i++) {
+            int id = engine.addPlayer("Bot-" + i).getId();
+            engine.processInput(id, new InputMessage("MOVE_START", DIRECTIONS[random.nextInt(DIRECTIONS.length)]));
+            playerIds.add(id);
+        }
+
+        // Llegar a un estado estable: centinelas generados y proyectiles en vuelo
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            tick();
+        }
+    }
+
+    // Un tick de simulación, reponiendo los proyectiles que expiraron
+    public void tick() {
+        engine.topUpProjectiles(projectiles);
+        engine.update();
+    }
+
+    public GameEngineImpl getEngine() {
+        return engine;
+    }
+
+    public List<Integer> getPlayerIds() {
+        return playerIds;
+    }
+}
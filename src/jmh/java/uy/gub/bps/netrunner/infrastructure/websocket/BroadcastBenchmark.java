@@ -0,0 +1,96 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uy.gub.bps.netrunner.domain.model.Player;
+import uy.gub.bps.netrunner.domain.model.SpatialIndexType;
+import uy.gub.bps.netrunner.domain.model.WorldSnapshot;
+import uy.gub.bps.netrunner.domain.service.SyntheticWorld;
+import uy.gub.bps.netrunner.infrastructure.metrics.GameMetrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Serialización de un tick de difusión completo (un frame por jugador), sin sockets de por medio
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+    // Snapshots consecutivos pregenerados para que los frames diferenciales tengan cambios reales
+    private static final int SNAPSHOTS = 64;
+
+    @Param({"10", "50", "200"})
+    private int players;
+
+    @Param({"2000"})
+    private int projectiles;
+
+    @Param({"true", "false"})
+    private boolean delta;
+
+    // Presupuesto por frame diferencial (0 = sin límite)
+    @Param({"0", "8192"})
+    private int frameByteBudget;
+
+    @Param({"true", "false"})
+    private boolean quantized;
+
+    private WorldSnapshot[] snapshots;
+    private GameRoom room;
+    private GameWebSocketHandler handler;
+    private final Map<Integer, DeltaCompressor.ClientBaseline> baselines = new HashMap<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticWorld world = new SyntheticWorld(players, 10, projectiles, SpatialIndexType.QUADTREE);
+        snapshots = new WorldSnapshot[SNAPSHOTS];
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            world.tick();
+            snapshots[i] = world.getEngine().snapshot();
+        }
+        room = new GameRoom("bench", world.getEngine(), 0, true);
+        // Sin sesiones reales: el RoomManager solo interviene al conectar y desconectar
+        handler = new GameWebSocketHandler(null, new GameMetrics(new SimpleMeterRegistry(), 30, false), delta, 256, frameByteBudget, quantized);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        handler.shutdown();
+        room.getEngine().shutdown();
+    }
+
+    @Benchmark
+    public long broadcast() throws IOException {
+        WorldSnapshot snapshot = snapshots[next++ % SNAPSHOTS];
+        handler.beginFrame(room, snapshot);
+        long bytes = 0;
+        for (Player player : snapshot.getPlayers().values()) {
+            DeltaCompressor.ClientBaseline baseline = baselines.computeIfAbsent(player.getId(), id -> new DeltaCompressor.ClientBaseline());
+            ByteBuffer frame = handler.encodeState(room, snapshot, player, baseline);
+            // Cliente ideal: confirma cada frame apenas lo recibe
+            baseline.ack(baseline.nextSequence() - 1);
+            bytes += frame.remaining();
+            handler.framePool.release(frame);
+        }
+        return bytes;
+    }
+}
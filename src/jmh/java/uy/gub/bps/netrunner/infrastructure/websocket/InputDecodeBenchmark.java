@@ -0,0 +1,70 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uy.gub.bps.netrunner.domain.model.InputMessage;
+import uy.gub.bps.netrunner.domain.service.InputCommand;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Decodificación de los frames de entrada más frecuentes (movimiento, disparo apuntado y ACK) desde buffers directos,
+// como los entrega el contenedor. Con -prof gc el camino binario debe quedar en 0 B/op.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputDecodeBenchmark {
+    private final InputCommand scratch = new InputCommand();
+    private ByteBuffer move;
+    private ByteBuffer shoot;
+    private ByteBuffer ack;
+    private byte[] legacyShoot;
+    private ObjectReader legacyReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        move = direct(new byte[]{InputProtocol.MOVE, InputCommand.UP | InputCommand.LEFT});
+        shoot = direct(ByteBuffer.allocate(5).put(InputProtocol.SHOOT)
+                .putShort((short) (120.5 * InputProtocol.AIM_SCALE)).putShort((short) (87.25 * InputProtocol.AIM_SCALE)).array());
+        ack = direct(ByteBuffer.allocate(5).put(InputProtocol.ACK).putInt(123456).array());
+        ObjectMapper msgPack = new ObjectMapper(new MessagePackFactory());
+        legacyShoot = msgPack.writeValueAsBytes(new InputMessage("SHOOT", "120.50,87.25"));
+        legacyReader = msgPack.readerFor(InputMessage.class);
+    }
+
+    private static ByteBuffer direct(byte[] bytes) {
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    @Benchmark
+    public long binary() {
+        long sum = 0;
+        move.rewind();
+        if (InputProtocol.decode(move, 1, 0, scratch)) sum++;
+        shoot.rewind();
+        if (InputProtocol.decode(shoot, 1, 0, scratch)) sum++;
+        ack.rewind();
+        return sum + InputProtocol.ack(ack);
+    }
+
+    @Benchmark
+    public InputMessage legacy() throws IOException {
+        return legacyReader.readValue(legacyShoot);
+    }
+}
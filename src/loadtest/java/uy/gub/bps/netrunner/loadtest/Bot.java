@@ -0,0 +1,207 @@
+package uy.gub.bps.netrunner.loadtest;
+
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
+import org.msgpack.value.ValueType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+// Cliente sin interfaz: hace el handshake WELCOME, confirma cada frame diferencial con ACK como game.js
+// y sigue un guion de movimiento y disparos. Solo lee la cabecera de cada frame para no medir su propio decodificador.
+class Bot implements WebSocket.Listener {
+    // Opcodes y escalas del protocolo binario de entrada (InputProtocol en el servidor)
+    private static final byte OP_MOVE = 0x01, OP_SHOOT = 0x02, OP_ACK = 0x04;
+    private static final int AIM_SCALE = 64;
+    private static final int[] DIRECTIONS = {1, 2, 4, 8};
+    // El mundo es de 200x200 celdas
+    private static final int WORLD_SIZE = 200;
+
+    private final Random random;
+    private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+    private WebSocket socket;
+    // Los envíos se encadenan: WebSocket no admite un sendBinary mientras otro está pendiente
+    private CompletableFuture<WebSocket> sendChain = CompletableFuture.completedFuture(null);
+
+    // Guion: dirección actual y pasos que quedan moviéndose
+    private int moving;
+    private int moveSteps;
+
+    private long connectStarted;
+    private volatile long welcomeNanos = -1;
+    private volatile boolean closed;
+    private volatile Throwable error;
+
+    // Ventana de medición: fuera de ella (conexión y calentamiento) los frames se confirman pero no se cuentan
+    private volatile long measureFrom = Long.MAX_VALUE;
+    private volatile long measureUntil = Long.MAX_VALUE;
+    private long bytesReceived;
+    private long stateFrames;
+    private long eventFrames;
+    private long lastStateAt;
+    private long lastSq = -1;
+    private long sqGaps;
+    private long[] interArrivals = new long[1024];
+    private int interArrivalCount;
+
+    Bot(long seed) {
+        this.random = new Random(seed);
+    }
+
+    CompletableFuture<WebSocket> connect(HttpClient client, URI uri) {
+        connectStarted = System.nanoTime();
+        return client.newWebSocketBuilder().buildAsync(uri, this)
+                .whenComplete((ws, e) -> {
+                    if (e != null) error = e;
+                });
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        this.socket = webSocket;
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+        byte[] chunk = new byte[data.remaining()];
+        data.get(chunk);
+        partial.write(chunk, 0, chunk.length);
+        if (last) {
+            byte[] frame = partial.toByteArray();
+            partial.reset();
+            try {
+                onFrame(frame, System.nanoTime());
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        closed = true;
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable e) {
+        error = e;
+        closed = true;
+    }
+
+    private synchronized void onFrame(byte[] frame, long now) throws IOException {
+        boolean measuring = now >= measureFrom && now < measureUntil;
+        if (measuring) bytesReceived += frame.length;
+        try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(frame)) {
+            if (unpacker.getNextFormat().getValueType() != ValueType.MAP) return;
+            if (unpacker.unpackMapHeader() == 0) return;
+            String key = unpacker.unpackString();
+            switch (key) {
+                case "t" -> {
+                    String type = unpacker.unpackString();
+                    if ("WELCOME".equals(type)) {
+                        welcomeNanos = now - connectStarted;
+                    } else if (measuring) {
+                        eventFrames++;
+                    }
+                }
+                case "sq" -> {
+                    long sq = unpacker.unpackLong();
+                    if (measuring) {
+                        onState(now);
+                        if (lastSq >= 0 && sq > lastSq + 1) sqGaps += sq - lastSq - 1;
+                    }
+                    lastSq = sq;
+                    send(ByteBuffer.allocate(5).put(OP_ACK).putInt((int) sq).array());
+                }
+                // Frame completo (delta desactivado en el servidor)
+                case "o" -> {
+                    if (measuring) onState(now);
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void onState(long now) {
+        if (stateFrames > 0) {
+            if (interArrivalCount == interArrivals.length) {
+                interArrivals = Arrays.copyOf(interArrivals, interArrivals.length * 2);
+            }
+            interArrivals[interArrivalCount++] = now - lastStateAt;
+        }
+        lastStateAt = now;
+        stateFrames++;
+    }
+
+    // Un paso del guion (cada 100 ms): arranca o sigue una dirección unos pasos, se detiene y dispara seguido
+    void step() {
+        if (socket == null || closed || welcomeNanos < 0) return;
+        if (moving != 0 && --moveSteps <= 0) {
+            moving = 0;
+            send(new byte[]{OP_MOVE, 0});
+        } else if (moving == 0 && random.nextInt(10) < 3) {
+            moving = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+            moveSteps = 5 + random.nextInt(16);
+            send(new byte[]{OP_MOVE, (byte) moving});
+        }
+        if (random.nextInt(10) < 4) {
+            send(ByteBuffer.allocate(5).put(OP_SHOOT)
+                    .putShort((short) (random.nextInt(WORLD_SIZE) * AIM_SCALE))
+                    .putShort((short) (random.nextInt(WORLD_SIZE) * AIM_SCALE))
+                    .array());
+        }
+    }
+
+    private synchronized void send(byte[] bytes) {
+        WebSocket ws = socket;
+        if (ws == null || closed) return;
+        sendChain = sendChain
+                .exceptionally(e -> null)
+                .thenCompose(ignored -> ws.sendBinary(ByteBuffer.wrap(bytes), true));
+    }
+
+    CompletableFuture<WebSocket> close() {
+        WebSocket ws = socket;
+        if (ws == null || closed) return CompletableFuture.completedFuture(null);
+        return sendChain.exceptionally(e -> null)
+                .thenCompose(ignored -> ws.sendClose(WebSocket.NORMAL_CLOSURE, "bye"));
+    }
+
+    void measure(long from, long until) {
+        measureFrom = from;
+        measureUntil = until;
+    }
+
+    synchronized Stats stats() {
+        return new Stats(isWelcomed(), welcomeNanos, closed, error, bytesReceived, stateFrames, eventFrames, sqGaps,
+                Arrays.copyOf(interArrivals, interArrivalCount));
+    }
+
+    boolean isWelcomed() {
+        return welcomeNanos >= 0;
+    }
+
+    // Lo medido por un bot en la ventana de la etapa; los intervalos entre frames de estado van en nanosegundos
+    record Stats(boolean welcomed, long welcomeNanos, boolean closed, Throwable error, long bytesReceived,
+                 long stateFrames, long eventFrames, long sqGaps, long[] interArrivals) {
+    }
+}
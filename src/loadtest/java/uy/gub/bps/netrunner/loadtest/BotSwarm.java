@@ -0,0 +1,106 @@
+package uy.gub.bps.netrunner.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Prueba de carga de punta a punta contra la aplicación levantada en local (./mvnw spring-boot:run).
+// Por cada cantidad de bots: conecta, espera los WELCOME, corre el guion un calentamiento y mide una ventana fija.
+// Uso: ./mvnw -Ploadtest test-compile exec:exec [-Dloadtest.bots=50,200,1000] [-Dloadtest.duration=30]
+//      [-Dloadtest.warmup=5] [-Dloadtest.url=ws://localhost:8080/game[/<sala>]] [-Dloadtest.report=target/loadtest-report.md]
+public class BotSwarm {
+    private static final int CONNECT_BATCH = 50;
+    private static final long STEP_MILLIS = 100;
+
+    public static void main(String[] args) throws Exception {
+        URI url = URI.create(arg(args, 0, "ws://localhost:8080/game"));
+        int[] stages = Arrays.stream(arg(args, 1, "50,200,1000").split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int duration = Integer.parseInt(arg(args, 2, "30"));
+        int warmup = Integer.parseInt(arg(args, 3, "5"));
+        Path reportPath = Path.of(arg(args, 4, "target/loadtest-report.md"));
+        URI metricsUri = URI.create(("wss".equals(url.getScheme()) ? "https" : "http") + "://" + url.getRawAuthority() + "/actuator/prometheus");
+
+        List<SwarmReport.Row> rows = new ArrayList<>();
+        for (int bots : stages) {
+            System.out.printf("== %d bots: conectando...%n", bots);
+            SwarmReport.Row row = runStage(url, metricsUri, bots, duration, warmup);
+            rows.add(row);
+            System.out.println(SwarmReport.header());
+            System.out.println(row.format());
+        }
+
+        String report = SwarmReport.render(url, duration, warmup, LocalDateTime.now(), rows);
+        if (reportPath.getParent() != null) Files.createDirectories(reportPath.getParent());
+        Files.writeString(reportPath, report);
+        System.out.println();
+        System.out.println(report);
+        System.out.println("Reporte: " + reportPath.toAbsolutePath());
+    }
+
+    private static SwarmReport.Row runStage(URI url, URI metricsUri, int count, int duration, int warmup)
+            throws InterruptedException, IOException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(10)).build();
+             ScheduledExecutorService script = Executors.newSingleThreadScheduledExecutor()) {
+            ServerMetrics metrics = new ServerMetrics(client, metricsUri);
+
+            // Conexión por tandas para no medir el pico de handshakes como si fuera la carga de régimen
+            List<Bot> bots = new ArrayList<>(count);
+            for (int start = 0; start < count; start += CONNECT_BATCH) {
+                List<CompletableFuture<?>> batch = new ArrayList<>();
+                for (int i = start; i < Math.min(count, start + CONNECT_BATCH); i++) {
+                    Bot bot = new Bot(i);
+                    bots.add(bot);
+                    batch.add(bot.connect(client, url));
+                }
+                awaitQuietly(batch, 10);
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (System.nanoTime() < deadline && bots.stream().anyMatch(b -> b.stats().error() == null && !b.isWelcomed())) {
+                Thread.sleep(50);
+            }
+
+            script.scheduleAtFixedRate(() -> bots.forEach(Bot::step), 0, STEP_MILLIS, TimeUnit.MILLISECONDS);
+            Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+
+            ServerMetrics.Sample before = metrics.scrape();
+            long from = System.nanoTime();
+            long until = from + TimeUnit.SECONDS.toNanos(duration);
+            bots.forEach(b -> b.measure(from, until));
+            Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+            ServerMetrics.Sample after = metrics.scrape();
+
+            script.shutdownNow();
+            List<Bot.Stats> stats = bots.stream().map(Bot::stats).toList();
+            awaitQuietly(bots.stream().<CompletableFuture<?>>map(Bot::close).toList(), 10);
+            // Tiempo para que el servidor retire a los jugadores antes de la etapa siguiente
+            Thread.sleep(2000);
+            return SwarmReport.Row.of(count, duration, stats, before, after);
+        }
+    }
+
+    private static void awaitQuietly(List<CompletableFuture<?>> futures, int seconds) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(seconds, TimeUnit.SECONDS);
+        } catch (java.util.concurrent.ExecutionException | TimeoutException ignored) {
+            // Cada bot guarda su propio error y se cuenta como fallido en el reporte
+        }
+    }
+
+    private static String arg(String[] args, int index, String fallback) {
+        return args.length > index && !args[index].isBlank() ? args[index] : fallback;
+    }
+}
@@ -0,0 +1,67 @@
+package uy.gub.bps.netrunner.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Lectura de /actuator/prometheus: suma cada métrica sobre todas sus etiquetas.
+// Si el endpoint no responde la etapa se reporta igual, sin las columnas del servidor.
+class ServerMetrics {
+    private final HttpClient client;
+    private final URI uri;
+
+    ServerMetrics(HttpClient client, URI uri) {
+        this.client = client;
+        this.uri = uri;
+    }
+
+    Sample scrape() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) return null;
+            return new Sample(System.nanoTime(), parse(response.body()));
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    static Map<String, Double> parse(String body) {
+        Map<String, Double> values = new HashMap<>();
+        for (String line : body.split("\n")) {
+            if (line.isEmpty() || line.charAt(0) == '#') continue;
+            int space = line.lastIndexOf(' ');
+            if (space < 0) continue;
+            int brace = line.indexOf('{');
+            String name = brace >= 0 && brace < space ? line.substring(0, brace) : line.substring(0, space).trim();
+            try {
+                values.merge(name, Double.parseDouble(line.substring(space + 1)), Double::sum);
+            } catch (NumberFormatException ignored) {
+                // NaN/Inf de gauges sin datos
+            }
+        }
+        return values;
+    }
+
+    record Sample(long nanos, Map<String, Double> values) {
+        double get(String name) {
+            return values.getOrDefault(name, 0.0);
+        }
+
+        double delta(Sample before, String name) {
+            return get(name) - before.get(name);
+        }
+
+        double seconds(Sample before) {
+            return (nanos - before.nanos) / 1e9;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package uy.gub.bps.netrunner.loadtest;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Tabla Markdown con una fila por etapa. Los intervalos entre frames se agregan sobre todos los bots;
+// el jitter es la desviación estándar de esos intervalos por bot (mediana de los bots y el peor).
+final class SwarmReport {
+    private static final String HEADER =
+            "| bots | conectados | fallidos | cortados | handshake p50/p99 ms | ticks/s servidor | tick medio/máx ms | overruns | ticks saltados | espera entrada media/máx ms "
+            + "| frames/s por bot | entre frames p50/p99/máx ms | jitter mediana/peor ms | sq perdidos | KB/s por bot | MB/s total | eventos/s por bot |";
+    private static final String SEPARATOR = "|---".repeat(17) + "|";
+
+    private SwarmReport() {
+    }
+
+    static String header() {
+        return HEADER + "\n" + SEPARATOR;
+    }
+
+    static String render(URI url, int duration, int warmup, LocalDateTime when, List<Row> rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# Bot swarm ").append(when.withNano(0)).append("\n\n");
+        sb.append("Servidor `").append(url).append("`, ventana de ").append(duration).append(" s tras ")
+                .append(warmup).append(" s de calentamiento. Guion por bot cada 100 ms: MOVE y SHOOT con el protocolo binario de entrada.\n\n");
+        sb.append(header()).append('\n');
+        for (Row row : rows) {
+            sb.append(row.format()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    record Row(int bots, int connected, int failed, int dropped,
+               double handshakeP50, double handshakeP99,
+               double tickRate, double tickMeanMs, double tickMaxMs, double overruns, double skipped,
+               double inputMeanMs, double inputMaxMs,
+               double framesPerBot, double gapP50, double gapP99, double gapMax,
+               double jitterMedian, double jitterWorst, double sqLossPct,
+               double kbPerBot, double mbTotal, double eventsPerBot) {
+
+        static Row of(int bots, int duration, List<Bot.Stats> stats, ServerMetrics.Sample before, ServerMetrics.Sample after) {
+            List<Bot.Stats> live = stats.stream().filter(Bot.Stats::welcomed).toList();
+            int failed = bots - live.size();
+            int dropped = (int) live.stream().filter(Bot.Stats::closed).count();
+
+            double[] handshakes = live.stream().mapToDouble(s -> s.welcomeNanos() / 1e6).sorted().toArray();
+            double[] gaps = live.stream().flatMapToLong(s -> Arrays.stream(s.interArrivals()))
+                    .mapToDouble(n -> n / 1e6).sorted().toArray();
+            double[] jitters = live.stream().filter(s -> s.interArrivals().length > 1)
+                    .mapToDouble(s -> stdDevMillis(s.interArrivals())).sorted().toArray();
+
+            long frames = live.stream().mapToLong(Bot.Stats::stateFrames).sum();
+            long lost = live.stream().mapToLong(Bot.Stats::sqGaps).sum();
+            long bytes = live.stream().mapToLong(Bot.Stats::bytesReceived).sum();
+            long events = live.stream().mapToLong(Bot.Stats::eventFrames).sum();
+            int n = Math.max(1, live.size());
+
+            double tickRate = Double.NaN, tickMean = Double.NaN, tickMax = Double.NaN, overruns = Double.NaN, skipped = Double.NaN;
+            double inputMean = Double.NaN, inputMax = Double.NaN;
+            if (before != null && after != null) {
+                double ticks = after.delta(before, "netrunner_tick_duration_seconds_count");
+                tickRate = ticks / after.seconds(before);
+                tickMean = ticks > 0 ? after.delta(before, "netrunner_tick_duration_seconds_sum") / ticks * 1000 : Double.NaN;
+                tickMax = after.get("netrunner_tick_duration_seconds_max") * 1000;
+                overruns = after.delta(before, "netrunner_tick_overruns_total");
+                skipped = after.delta(before, "netrunner_tick_skipped_total");
+                // La espera de entrada se registra una vez por tick con comandos: la mayor de ese tick
+                double inputTicks = after.delta(before, "netrunner_input_latency_seconds_count");
+                inputMean = inputTicks > 0 ? after.delta(before, "netrunner_input_latency_seconds_sum") / inputTicks * 1000 : Double.NaN;
+                inputMax = after.get("netrunner_input_latency_seconds_max") * 1000;
+            }
+
+            return new Row(bots, live.size(), failed, dropped,
+                    percentile(handshakes, 0.50), percentile(handshakes, 0.99),
+                    tickRate, tickMean, tickMax, overruns, skipped,
+                    inputMean, inputMax,
+                    (double) frames / n / duration,
+                    percentile(gaps, 0.50), percentile(gaps, 0.99), gaps.length > 0 ? gaps[gaps.length - 1] : Double.NaN,
+                    percentile(jitters, 0.50), jitters.length > 0 ? jitters[jitters.length - 1] : Double.NaN,
+                    frames + lost > 0 ? 100.0 * lost / (frames + lost) : 0,
+                    bytes / 1024.0 / n / duration, bytes / 1e6 / duration,
+                    (double) events / n / duration);
+        }
+
+        String format() {
+            return String.format(Locale.ROOT,
+                    "| %d | %d | %d | %d | %s / %s | %s | %s / %s | %s | %s | %s / %s | %s | %s / %s / %s | %s / %s | %s%% | %s | %s | %s |",
+                    bots, connected, failed, dropped,
+                    num(handshakeP50), num(handshakeP99),
+                    num(tickRate), num(tickMeanMs), num(tickMaxMs), num(overruns), num(skipped),
+                    num(inputMeanMs), num(inputMaxMs),
+                    num(framesPerBot), num(gapP50), num(gapP99), num(gapMax),
+                    num(jitterMedian), num(jitterWorst), num(sqLossPct),
+                    num(kbPerBot), num(mbTotal), num(eventsPerBot));
+        }
+    }
+
+    private static double stdDevMillis(long[] nanos) {
+        double mean = 0;
+        for (long n : nanos) mean += n;
+        mean /= nanos.length;
+        double sq = 0;
+        for (long n : nanos) sq += (n - mean) * (n - mean);
+        return Math.sqrt(sq / nanos.length) / 1e6;
+    }
+
+    // Percentil por rango más cercano sobre un arreglo ya ordenado
+    private static double percentile(double[] sorted, double p) {
+        if (sorted.length == 0) return Double.NaN;
+        int rank = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.clamp(rank, 0, sorted.length - 1)];
+    }
+
+    private static String num(double value) {
+        if (Double.isNaN(value)) return "-";
+        return value == Math.rint(value) && Math.abs(value) < 1e9
+                ? Long.toString((long) value)
+                : String.format(Locale.ROOT, "%.1f", value);
+    }
+}
@@ -16,7 +16,8 @@ public class WebSocketConfig implements WebSocketConfigurer {
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
-        registry.addHandler(gameWebSocketHandler, "/game")
+        // /game/<sala> elige la sala por nombre; /game deja la elección al RoomManager
+        registry.addHandler(gameWebSocketHandler, "/game", "/game/*")
                 .setAllowedOrigins("*");
     }
 }
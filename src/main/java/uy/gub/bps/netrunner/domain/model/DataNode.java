@@ -6,15 +6,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.UUID;
-
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class DataNode implements GameObject {
     @JsonProperty("i")
-    private final UUID id = UUID.randomUUID();
+    private int id;
     @JsonProperty("p")
     private Position position;
     @JsonProperty("s")
@@ -25,7 +23,7 @@ public class DataNode implements GameObject {
     private final String name = "DATA_NODE";
 
     @Override
-    public UUID getId() {
+    public int getId() {
         return id;
     }
 
@@ -53,4 +51,9 @@ public class DataNode implements GameObject {
     public String getName() {
         return name;
     }
+
+    @Override
+    public EntityKind kind() {
+        return EntityKind.DATA_NODE;
+    }
 }
@@ -0,0 +1,69 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import java.util.Arrays;
+
+// Identificadores de entidad de 32 bits: índice de slot (20 bits) + generación (11 bits), siempre positivos.
+// Al liberar un handle su slot cambia de generación, así un id viejo nunca coincide con la entidad que reutiliza el slot.
+// Los slots libres se reciclan en orden FIFO para que un mismo índice tarde en volver a usarse.
+// Cada motor tiene su propio asignador: los slots quedan densos dentro de la sala, las salas no compiten por
+// el mismo lock y al cerrar una sala su espacio de handles se descarta con ella.
+public final class EntityHandles {
+    // Nunca se asigna: sirve como "sin entidad"
+    public static final int NONE = 0;
+
+    private static final int INDEX_BITS = 20;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - INDEX_BITS)) - 1;
+    private static final int INITIAL_SLOTS = 1024;
+
+    private int[] generations = new int[INITIAL_SLOTS];
+    // Cola circular de índices libres
+    private int[] free = new int[INITIAL_SLOTS];
+    private int freeHead;
+    private int freeCount;
+    // El índice 0 queda reservado para NONE
+    private int nextIndex = 1;
+
+    // Los hilos de red (altas de jugadores) y los commits paralelos asignan a la vez que el tick
+    public synchronized int allocate() {
+        int index;
+        if (freeCount > 0) {
+            index = free[freeHead];
+            freeHead = (freeHead + 1) % free.length;
+            freeCount--;
+        } else {
+            if (nextIndex > INDEX_MASK) {
+                throw new IllegalStateException("Entity handle space exhausted");
+            }
+            index = nextIndex++;
+            if (index == generations.length) {
+                generations = Arrays.copyOf(generations, generations.length * 2);
+            }
+        }
+        return (generations[index] << INDEX_BITS) | index;
+    }
+
+    // Liberar dos veces el mismo handle, o uno ya reciclado, no tiene efecto
+    public synchronized void release(int handle) {
+        int index = handle & INDEX_MASK;
+        if (handle <= NONE || index >= nextIndex || generations[index] != handle >>> INDEX_BITS) {
+            return;
+        }
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        if (freeCount == free.length) {
+            int[] grown = new int[free.length * 2];
+            for (int i = 0; i < freeCount; i++) {
+                grown[i] = free[(freeHead + i) % free.length];
+            }
+            free = grown;
+            freeHead = 0;
+        }
+        free[(freeHead + freeCount) % free.length] = index;
+        freeCount++;
+    }
+
+    // Handles asignados y todavía no liberados
+    public synchronized int live() {
+        return nextIndex - 1 - freeCount;
+    }
+}
@@ -0,0 +1,27 @@
+package uy.gub.bps.netrunner.domain.model;
+
+// Tipo de entidad como etiqueta: los índices espaciales filtran por máscara de bits sin instanceof ni predicados
+public enum EntityKind {
+    PLAYER,
+    SENTINEL,
+    PROJECTILE,
+    METEORITE,
+    ORE,
+    DATA_NODE,
+    WORMHOLE,
+    SPACE_STATION;
+
+    public static final int ALL = (1 << values().length) - 1;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public static int mask(EntityKind... kinds) {
+        int mask = 0;
+        for (EntityKind kind : kinds) {
+            mask |= kind.bit();
+        }
+        return mask;
+    }
+}
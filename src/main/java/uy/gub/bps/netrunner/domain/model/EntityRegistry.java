@@ -0,0 +1,146 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Entidades de un mismo tipo en un arreglo denso, compacto en [0, size): al quitar una, la última ocupa su lugar.
+// Recorrer es lineal y size() es O(1); la búsqueda por id usa una tabla propia id -> posición con direccionamiento
+// abierto, así la memoria del registro depende de cuántas entidades tiene y no de los handles en uso en el mundo.
+// Las altas y bajas pueden llegar desde los commits paralelos por región y forEach/addTo desde otros hilos,
+// así que esas operaciones toman el monitor del registro. get(i) es para los recorridos del hilo de simulación
+// en fases secuenciales, donde nadie más modifica el registro.
+public class EntityRegistry<T extends GameObject> {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int ABSENT = -1;
+
+    private GameObject[] items = new GameObject[INITIAL_CAPACITY];
+    private volatile int size;
+    // Tabla id -> posición en items; EntityHandles.NONE marca una celda vacía. Carga máxima 1/2
+    private int[] keys = new int[INITIAL_CAPACITY * 2];
+    private int[] positions = new int[INITIAL_CAPACITY * 2];
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int i) {
+        return (T) items[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized T byId(int id) {
+        int position = position(id);
+        return position != ABSENT ? (T) items[position] : null;
+    }
+
+    public synchronized void add(T entity) {
+        if (position(entity.getId()) != ABSENT) return;
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            rehash(keys.length * 2);
+        }
+        items[size] = entity;
+        putKey(entity.getId(), size);
+        size++;
+    }
+
+    // Devuelve false si la entidad ya no estaba (otro commit la quitó primero)
+    public synchronized boolean remove(int id) {
+        int position = position(id);
+        if (position == ABSENT) return false;
+        removeAt(position);
+        return true;
+    }
+
+    public synchronized boolean removeIf(Predicate<? super T> filter) {
+        boolean removed = false;
+        for (int i = size - 1; i >= 0; i--) {
+            if (filter.test(get(i))) {
+                removeAt(i);
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void forEach(Consumer<? super T> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(get(i));
+        }
+    }
+
+    public synchronized void addTo(Collection<? super T> target) {
+        for (int i = 0; i < size; i++) {
+            target.add(get(i));
+        }
+    }
+
+    private void removeAt(int position) {
+        int last = size - 1;
+        removeKey(items[position].getId());
+        if (position != last) {
+            items[position] = items[last];
+            positions[cell(items[position].getId())] = position;
+        }
+        items[last] = null;
+        size = last;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Celda de id en la tabla, o la celda vacía donde iría
+    private int cell(int id) {
+        int mask = keys.length - 1;
+        int i = hash(id) & mask;
+        while (keys[i] != EntityHandles.NONE && keys[i] != id) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private int position(int id) {
+        int i = cell(id);
+        return keys[i] == id ? positions[i] : ABSENT;
+    }
+
+    private void putKey(int id, int position) {
+        int i = cell(id);
+        keys[i] = id;
+        positions[i] = position;
+    }
+
+    private void removeKey(int id) {
+        int mask = keys.length - 1;
+        int i = cell(id);
+        if (keys[i] != id) return;
+        keys[i] = EntityHandles.NONE;
+
+        // Corrimiento hacia atrás: las entradas siguientes de la cadena ocupan el hueco si su posición ideal lo permite
+        for (int j = (i + 1) & mask; keys[j] != EntityHandles.NONE; j = (j + 1) & mask) {
+            int k = hash(keys[j]) & mask;
+            boolean stays = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+            if (!stays) {
+                keys[i] = keys[j];
+                positions[i] = positions[j];
+                keys[j] = EntityHandles.NONE;
+                i = j;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldPositions = positions;
+        keys = new int[capacity];
+        positions = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EntityHandles.NONE) putKey(oldKeys[i], oldPositions[i]);
+        }
+    }
+}
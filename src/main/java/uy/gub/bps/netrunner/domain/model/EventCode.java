@@ -0,0 +1,37 @@
+package uy.gub.bps.netrunner.domain.model;
+
+// Códigos de evento: el número viaja en la red y game.js lo traduce con su tabla de plantillas (EVENT_TEMPLATES).
+// Los parámetros de cada código van en el orden indicado; "agente" es el handle de un jugador.
+public enum EventCode {
+    TEXT(0),                  // texto con marcado de color (respuestas a comandos y tienda)
+    PLAYER_JOINED(1),         // agente, nombre, color
+    PLAYER_LEFT(2),           // agente
+    COLOR_CHANGED(3),         // agente, color nuevo
+    CHAT(4),                  // agente, mensaje
+    RENAMED(5),               // agente, nombre nuevo
+    KILL(6),                  // agente atacante, agente eliminado
+    DECOMMISSIONED(7),        // agente
+    LEVEL_UP(8),              // agente, nivel
+    IMPACT_FAILURE(9),        // agente
+    NULL_DETECTED(10),
+    FIREWALL_DEPLOYED(11),
+    FIREWALL_BREACHED(12),
+    NULL_NEUTRALIZED(13),
+    SENTINEL_DOWN(14),
+    WORMHOLE_COLLAPSE(15),
+    WORMHOLE_DETECTED(16),
+    WORMHOLE_STABILIZING(17), // segundos restantes
+    TELEPORTED(18),
+    WHISPER_IN(19),           // agente remitente, mensaje
+    WHISPER_OUT(20);          // agente destinatario, mensaje
+
+    private final int code;
+
+    EventCode(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+}
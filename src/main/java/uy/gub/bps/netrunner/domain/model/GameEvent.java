@@ -0,0 +1,19 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+// Evento tipado: en la red es el arreglo [código, parámetros...] sin texto preformateado.
+public record GameEvent(EventCode code, Object... args) {
+
+    public static GameEvent text(String markup) {
+        return new GameEvent(EventCode.TEXT, markup);
+    }
+
+    @JsonValue
+    public Object[] toWire() {
+        Object[] wire = new Object[args.length + 1];
+        wire[0] = code.getCode();
+        System.arraycopy(args, 0, wire, 1, args.length);
+        return wire;
+    }
+}
@@ -15,7 +15,7 @@ public class GameState {
     @JsonProperty("o")
     private Collection<GameObject> objects;
     @JsonProperty("ev")
-    private List<String> events;
+    private List<GameEvent> events;
     @JsonProperty("ef")
     private List<VisualEffect> effects;
     @JsonProperty("v")
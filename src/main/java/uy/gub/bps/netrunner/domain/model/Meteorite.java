@@ -6,15 +6,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.UUID;
-
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Meteorite implements GameObject {
     @JsonProperty("i")
-    private final UUID id = UUID.randomUUID();
+    private int id;
     @JsonProperty("p")
     private Position position;
     @JsonProperty("s")
@@ -31,7 +29,7 @@ public class Meteorite implements GameObject {
     private int size = 1;
 
     @Override
-    public UUID getId() {
+    public int getId() {
         return id;
     }
 
@@ -64,4 +62,9 @@ public class Meteorite implements GameObject {
     public int getSize() {
         return size;
     }
+
+    @Override
+    public EntityKind kind() {
+        return EntityKind.METEORITE;
+    }
 }
@@ -6,10 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.UUID;
-
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Ore implements GameObject {
@@ -30,7 +28,7 @@ public class Ore implements GameObject {
     }
 
     @JsonProperty("i")
-    private final UUID id = UUID.randomUUID();
+    private int id;
     @JsonProperty("p")
     private Position position;
     @JsonProperty("s")
@@ -39,7 +37,7 @@ public class Ore implements GameObject {
 
     @Override
     @JsonProperty("i")
-    public UUID getId() {
+    public int getId() {
         return id;
     }
 
@@ -71,4 +69,9 @@ public class Ore implements GameObject {
     public String getName() {
         return type != null ? type.name + "_ORE" : "DATA_ORE";
     }
+
+    @Override
+    public EntityKind kind() {
+        return EntityKind.ORE;
+    }
 }
@@ -6,15 +6,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.UUID;
-
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Player implements GameObject {
     @JsonProperty("i")
-    private UUID id;
+    private int id;
     @JsonProperty("p")
     private Position position;
     @JsonProperty("s")
@@ -65,7 +63,7 @@ public class Player implements GameObject {
     private double vy = 0;
 
     @Override
-    public UUID getId() {
+    public int getId() {
         return id;
     }
 
@@ -97,4 +95,9 @@ public class Player implements GameObject {
     public int getMinerals() {
         return copper + silver + gold;
     }
+
+    @Override
+    public EntityKind kind() {
+        return EntityKind.PLAYER;
+    }
 }
@@ -6,15 +6,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.UUID;
-
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Projectile implements GameObject {
     @JsonProperty("i")
-    private final UUID id = UUID.randomUUID();
+    private int id;
     @JsonProperty("p")
     private Position position;
     private double vx;
@@ -26,7 +24,7 @@ public class Projectile implements GameObject {
     @Builder.Default
     private double damage = 1;
     private boolean explosive;
-    private UUID ownerId;
+    private int ownerId;
     @JsonProperty("c")
     private String color;
     @Builder.Default
@@ -36,7 +34,7 @@ public class Projectile implements GameObject {
     private final String name = "PROJECTILE";
 
     @Override
-    public UUID getId() {
+    public int getId() {
         return id;
     }
 
@@ -64,4 +62,9 @@ public class Projectile implements GameObject {
     public String getName() {
         return name;
     }
+
+    @Override
+    public EntityKind kind() {
+        return EntityKind.PROJECTILE;
+    }
 }
@@ -0,0 +1,34 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// Kernels SIMD de ProjectileStore. Solo se carga si el módulo jdk.incubator.vector está presente.
+final class ProjectileKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private ProjectileKernels() {
+    }
+
+    // Procesa los bloques completos del ancho del vector y devuelve el índice desde el que sigue el código escalar
+    static int integrate(int count, double stepScale,
+                         double[] x, double[] y, double[] vx, double[] vy,
+                         double[] speed, double[] traveled, double[] nextX, double[] nextY) {
+        int upper = SPECIES.loopBound(count);
+        for (int i = 0; i < upper; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, vx, i)
+                    .mul(stepScale)
+                    .add(DoubleVector.fromArray(SPECIES, x, i))
+                    .intoArray(nextX, i);
+            DoubleVector.fromArray(SPECIES, vy, i)
+                    .mul(stepScale)
+                    .add(DoubleVector.fromArray(SPECIES, y, i))
+                    .intoArray(nextY, i);
+            DoubleVector.fromArray(SPECIES, speed, i)
+                    .mul(stepScale)
+                    .add(DoubleVector.fromArray(SPECIES, traveled, i))
+                    .intoArray(traveled, i);
+        }
+        return upper;
+    }
+}
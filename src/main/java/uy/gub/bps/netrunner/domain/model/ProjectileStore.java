@@ -0,0 +1,202 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Proyectiles en vuelo como arreglos paralelos (structure of arrays), compactos en [0, size).
+// Al quitar un proyectil el último ocupa su slot, así la integración recorre memoria contigua sin huecos.
+// La integración usa la Vector API cuando el módulo jdk.incubator.vector está cargado (--add-modules).
+// Salvo spawn(), se usa únicamente desde el hilo de simulación.
+public class ProjectileStore {
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final EntityHandles handles;
+    private int size;
+    // Disparos hechos desde los hilos de entrada; se incorporan al comienzo de integrate()
+    private final Queue<Shot> spawned = new ConcurrentLinkedQueue<>();
+
+    private record Shot(int owner, double x, double y, double vx, double vy,
+                        double range, double damage, boolean explosive, String color, String symbol) {
+    }
+
+    private double[] x = new double[INITIAL_CAPACITY];
+    private double[] y = new double[INITIAL_CAPACITY];
+    private double[] vx = new double[INITIAL_CAPACITY];
+    private double[] vy = new double[INITIAL_CAPACITY];
+    // Módulo de la velocidad, calculado una sola vez al disparar
+    private double[] speed = new double[INITIAL_CAPACITY];
+    private double[] traveled = new double[INITIAL_CAPACITY];
+    private double[] range = new double[INITIAL_CAPACITY];
+    private double[] damage = new double[INITIAL_CAPACITY];
+    // Posición candidata calculada por integrate(); el motor decide si se confirma
+    private double[] nextX = new double[INITIAL_CAPACITY];
+    private double[] nextY = new double[INITIAL_CAPACITY];
+    private boolean[] explosive = new boolean[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] owners = new int[INITIAL_CAPACITY];
+    private String[] colors = new String[INITIAL_CAPACITY];
+    private String[] symbols = new String[INITIAL_CAPACITY];
+
+    // Slots marcados durante la resolución de colisiones, en orden creciente
+    private int[] removals = new int[INITIAL_CAPACITY];
+    private int removalCount;
+
+    public ProjectileStore(EntityHandles handles) {
+        this.handles = handles;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void spawn(int owner, double px, double py, double pvx, double pvy,
+                      double maxRange, double dmg, boolean isExplosive, String color, String symbol) {
+        spawned.add(new Shot(owner, px, py, pvx, pvy, maxRange, dmg, isExplosive, color, symbol));
+    }
+
+    private void addSpawned() {
+        Shot shot;
+        while ((shot = spawned.poll()) != null) {
+            if (size == x.length) grow();
+            int i = size++;
+            x[i] = shot.x();
+            y[i] = shot.y();
+            vx[i] = shot.vx();
+            vy[i] = shot.vy();
+            speed[i] = Math.sqrt(shot.vx() * shot.vx() + shot.vy() * shot.vy());
+            traveled[i] = 0;
+            range[i] = shot.range();
+            damage[i] = shot.damage();
+            explosive[i] = shot.explosive();
+            ids[i] = handles.allocate();
+            owners[i] = shot.owner();
+            colors[i] = shot.color();
+            symbols[i] = shot.symbol();
+        }
+    }
+
+    // Avanza todos los proyectiles un paso: calcula nextX/nextY y acumula la distancia recorrida
+    public void integrate(double stepScale) {
+        addSpawned();
+        int from = 0;
+        if (VECTORIZED) {
+            from = ProjectileKernels.integrate(size, stepScale, x, y, vx, vy, speed, traveled, nextX, nextY);
+        }
+        for (int i = from; i < size; i++) {
+            nextX[i] = x[i] + vx[i] * stepScale;
+            nextY[i] = y[i] + vy[i] * stepScale;
+            traveled[i] += speed[i] * stepScale;
+        }
+    }
+
+    public double x(int i) { return x[i]; }
+    public double y(int i) { return y[i]; }
+    public double nextX(int i) { return nextX[i]; }
+    public double nextY(int i) { return nextY[i]; }
+    public double stepVx(int i, double stepScale) { return vx[i] * stepScale; }
+    public double stepVy(int i, double stepScale) { return vy[i] * stepScale; }
+    public double stepLength(int i, double stepScale) { return speed[i] * stepScale; }
+    public double damage(int i) { return damage[i]; }
+    public boolean explosive(int i) { return explosive[i]; }
+    public boolean expired(int i) { return traveled[i] >= range[i]; }
+    public int owner(int i) { return owners[i]; }
+    public String color(int i) { return colors[i]; }
+
+    public void moveTo(int i, double px, double py) {
+        x[i] = px;
+        y[i] = py;
+    }
+
+    public void commitMove(int i) {
+        x[i] = nextX[i];
+        y[i] = nextY[i];
+    }
+
+    // Los slots se marcan en orden creciente y se liberan todos juntos en removeMarked()
+    public void markForRemoval(int i) {
+        if (removalCount == removals.length) removals = Arrays.copyOf(removals, removals.length * 2);
+        removals[removalCount++] = i;
+    }
+
+    public void removeMarked() {
+        // De atrás hacia adelante: el último slot nunca es uno ya marcado
+        for (int r = removalCount - 1; r >= 0; r--) {
+            moveLastInto(removals[r]);
+        }
+        removalCount = 0;
+    }
+
+    public Projectile toProjectile(int i) {
+        return Projectile.builder()
+                .id(ids[i])
+                .position(new Position(x[i], y[i]))
+                .vx(vx[i])
+                .vy(vy[i])
+                .distanceTraveled(traveled[i])
+                .maxRange(range[i])
+                .damage(damage[i])
+                .explosive(explosive[i])
+                .ownerId(owners[i])
+                .color(colors[i])
+                .symbol(symbols[i])
+                .build();
+    }
+
+    // Al cerrar el mundo: libera los handles de los proyectiles en vuelo y descarta los disparos sin incorporar
+    public void releaseAll() {
+        for (int i = 0; i < size; i++) {
+            handles.release(ids[i]);
+            colors[i] = null;
+            symbols[i] = null;
+        }
+        size = 0;
+        removalCount = 0;
+        spawned.clear();
+    }
+
+    private void moveLastInto(int i) {
+        handles.release(ids[i]);
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            speed[i] = speed[last];
+            traveled[i] = traveled[last];
+            range[i] = range[last];
+            damage[i] = damage[last];
+            nextX[i] = nextX[last];
+            nextY[i] = nextY[last];
+            explosive[i] = explosive[last];
+            ids[i] = ids[last];
+            owners[i] = owners[last];
+            colors[i] = colors[last];
+            symbols[i] = symbols[last];
+        }
+        // Soltar referencias para no retener strings
+        colors[last] = null;
+        symbols[last] = null;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        traveled = Arrays.copyOf(traveled, capacity);
+        range = Arrays.copyOf(range, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        nextX = Arrays.copyOf(nextX, capacity);
+        nextY = Arrays.copyOf(nextY, capacity);
+        explosive = Arrays.copyOf(explosive, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        symbols = Arrays.copyOf(symbols, capacity);
+    }
+}
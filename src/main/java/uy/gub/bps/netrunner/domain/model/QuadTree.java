@@ -1,14 +1,41 @@
 package uy.gub.bps.netrunner.domain.model;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+
+public class QuadTree implements SpatialIndex {
+    // Por debajo de este tamaño no se subdivide (evita recursión infinita con objetos en el mismo punto)
+    private static final double MIN_HALF_SIZE = 0.5;
 
-public class QuadTree {
     private final Rectangle boundary;
     private final int capacity;
     private final List<GameObject> objects;
+    private final QuadTree parent;
+    // Compartido por todos los nodos del árbol
+    private final Locations locations;
     private QuadTree nw, ne, sw, se;
     private boolean divided;
+    // Objetos en todo el subárbol, para decidir cuándo fusionar los hijos
+    private int size;
+
+    // Hoja en la que vive cada objeto; permite moverlo o quitarlo sin recorrer el árbol
+    private static class Locations {
+        private final Map<GameObject, Location> byObject = new IdentityHashMap<>();
+        private long generation;
+    }
+
+    private static class Location {
+        private QuadTree node;
+        private long stamp;
+
+        private Location(QuadTree node, long stamp) {
+            this.node = node;
+            this.stamp = stamp;
+        }
+    }
 
     public static class Rectangle {
         public final double x, y, w, h;
@@ -33,49 +60,200 @@ public class QuadTree {
     }
 
     public QuadTree(Rectangle boundary, int capacity) {
+        this(boundary, capacity, null, new Locations());
+    }
+
+    private QuadTree(Rectangle boundary, int capacity, QuadTree parent, Locations locations) {
         this.boundary = boundary;
         this.capacity = capacity;
         this.objects = new ArrayList<>();
+        this.parent = parent;
+        this.locations = locations;
         this.divided = false;
     }
 
+    @Override
+    public Rectangle getBoundary() {
+        return boundary;
+    }
+
     private void subdivide() {
         double x = boundary.x;
         double y = boundary.y;
         double w = boundary.w / 2;
         double h = boundary.h / 2;
 
-        nw = new QuadTree(new Rectangle(x - w, y - h, w, h), capacity);
-        ne = new QuadTree(new Rectangle(x + w, y - h, w, h), capacity);
-        sw = new QuadTree(new Rectangle(x - w, y + h, w, h), capacity);
-        se = new QuadTree(new Rectangle(x + w, y + h, w, h), capacity);
+        nw = new QuadTree(new Rectangle(x - w, y - h, w, h), capacity, this, locations);
+        ne = new QuadTree(new Rectangle(x + w, y - h, w, h), capacity, this, locations);
+        sw = new QuadTree(new Rectangle(x - w, y + h, w, h), capacity, this, locations);
+        se = new QuadTree(new Rectangle(x + w, y + h, w, h), capacity, this, locations);
         divided = true;
 
         // Redistribuir objetos existentes
         for (GameObject obj : objects) {
-            insertIntoChildren(obj);
+            QuadTree leaf = placeInChildren(obj);
+            if (leaf == null) {
+                // Objeto que ya se movió pero todavía no se actualizó en esta pasada
+                leaf = quadrant(obj).adopt(obj);
+            }
+            Location location = locations.byObject.get(obj);
+            if (location != null) location.node = leaf;
         }
         objects.clear();
     }
 
-    private boolean insertIntoChildren(GameObject obj) {
-        return nw.insert(obj) || ne.insert(obj) || sw.insert(obj) || se.insert(obj);
+    private QuadTree placeInChildren(GameObject obj) {
+        QuadTree leaf = nw.place(obj);
+        if (leaf == null) leaf = ne.place(obj);
+        if (leaf == null) leaf = sw.place(obj);
+        if (leaf == null) leaf = se.place(obj);
+        return leaf;
     }
 
-    public boolean insert(GameObject obj) {
+    private QuadTree quadrant(GameObject obj) {
+        Position p = obj.getPosition();
+        boolean west = p.x() < boundary.x;
+        boolean north = p.y() < boundary.y;
+        return north ? (west ? nw : ne) : (west ? sw : se);
+    }
+
+    // Agrega el objeto sin verificar límites; su próximo update lo reubica
+    private QuadTree adopt(GameObject obj) {
+        size++;
+        if (!divided) {
+            objects.add(obj);
+            return this;
+        }
+        return quadrant(obj).adopt(obj);
+    }
+
+    // Ubica el objeto en el subárbol y devuelve la hoja donde quedó (null si está fuera de los límites)
+    private QuadTree place(GameObject obj) {
         if (!boundary.contains(obj.getPosition())) {
-            return false;
+            return null;
         }
 
         if (!divided) {
-            if (objects.size() < capacity) {
+            if (objects.size() < capacity || boundary.w <= MIN_HALF_SIZE) {
                 objects.add(obj);
-                return true;
+                size++;
+                return this;
             }
             subdivide();
         }
 
-        return insertIntoChildren(obj);
+        QuadTree leaf = placeInChildren(obj);
+        if (leaf != null) size++;
+        return leaf;
+    }
+
+    @Override
+    public boolean insert(GameObject obj) {
+        if (locations.byObject.containsKey(obj)) {
+            return update(obj);
+        }
+        QuadTree leaf = place(obj);
+        if (leaf == null) {
+            return false;
+        }
+        locations.byObject.put(obj, new Location(leaf, locations.generation));
+        return true;
+    }
+
+    // Reubica un objeto que pudo haberse movido; si sigue dentro de su hoja no hace nada
+    @Override
+    public boolean update(GameObject obj) {
+        Location location = locations.byObject.get(obj);
+        if (location == null) {
+            return insert(obj);
+        }
+        location.stamp = locations.generation;
+        if (location.node.boundary.contains(obj.getPosition())) {
+            return true;
+        }
+
+        location.node.detach(obj);
+        QuadTree leaf = place(obj);
+        if (leaf == null) {
+            locations.byObject.remove(obj);
+            return false;
+        }
+        location.node = leaf;
+        return true;
+    }
+
+    @Override
+    public boolean remove(GameObject obj) {
+        Location location = locations.byObject.remove(obj);
+        if (location == null) {
+            return false;
+        }
+        location.node.detach(obj);
+        return true;
+    }
+
+    // Quita los objetos que no se insertaron ni actualizaron desde el sweep anterior
+    @Override
+    public void sweep() {
+        Iterator<Map.Entry<GameObject, Location>> it = locations.byObject.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<GameObject, Location> entry = it.next();
+            if (entry.getValue().stamp != locations.generation) {
+                entry.getValue().node.detach(entry.getKey());
+                it.remove();
+            }
+        }
+        locations.generation++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void detach(GameObject obj) {
+        // Por identidad: equals() de las entidades compara todos sus campos
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i) == obj) {
+                objects.remove(i);
+                break;
+            }
+        }
+
+        QuadTree mergeTarget = null;
+        for (QuadTree node = this; node != null; node = node.parent) {
+            node.size--;
+            // Se fusiona con histéresis para no dividir y fusionar el mismo nodo en ticks alternos
+            if (node.divided && node.size <= capacity / 2) {
+                mergeTarget = node;
+            }
+        }
+        if (mergeTarget != null) {
+            mergeTarget.merge();
+        }
+    }
+
+    private void merge() {
+        for (QuadTree child : new QuadTree[]{nw, ne, sw, se}) {
+            child.collectInto(this);
+        }
+        nw = ne = sw = se = null;
+        divided = false;
+    }
+
+    private void collectInto(QuadTree target) {
+        if (divided) {
+            nw.collectInto(target);
+            ne.collectInto(target);
+            sw.collectInto(target);
+            se.collectInto(target);
+            return;
+        }
+        for (GameObject obj : objects) {
+            target.objects.add(obj);
+            Location location = locations.byObject.get(obj);
+            if (location != null) location.node = target;
+        }
     }
 
     public void query(Rectangle range, List<GameObject> found) {
@@ -86,18 +264,20 @@ public class QuadTree {
         });
     }
 
-    public void query(double x, double y, double w, double h, java.util.function.Consumer<GameObject> action) {
+    @Override
+    public void query(double x, double y, double w, double h, int kinds, java.util.function.Consumer<GameObject> action) {
         if (!intersects(x, y, w, h)) {
             return;
         }
 
         if (divided) {
-            nw.query(x, y, w, h, action);
-            ne.query(x, y, w, h, action);
-            sw.query(x, y, w, h, action);
-            se.query(x, y, w, h, action);
+            nw.query(x, y, w, h, kinds, action);
+            ne.query(x, y, w, h, kinds, action);
+            sw.query(x, y, w, h, kinds, action);
+            se.query(x, y, w, h, kinds, action);
         } else {
             for (GameObject obj : objects) {
+                if ((obj.kind().bit() & kinds) == 0) continue;
                 Position p = obj.getPosition();
                 if (p.x() >= x - w && p.x() <= x + w &&
                     p.y() >= y - h && p.y() <= y + h) {
@@ -107,21 +287,23 @@ public class QuadTree {
         }
     }
 
-    public GameObject findFirst(double x, double y, double w, double h, java.util.function.Predicate<GameObject> filter) {
+    @Override
+    public GameObject findFirst(double x, double y, double w, double h, int kinds, java.util.function.Predicate<GameObject> filter) {
         if (!intersects(x, y, w, h)) {
             return null;
         }
 
         if (divided) {
-            GameObject found = nw.findFirst(x, y, w, h, filter);
+            GameObject found = nw.findFirst(x, y, w, h, kinds, filter);
             if (found != null) return found;
-            found = ne.findFirst(x, y, w, h, filter);
+            found = ne.findFirst(x, y, w, h, kinds, filter);
             if (found != null) return found;
-            found = sw.findFirst(x, y, w, h, filter);
+            found = sw.findFirst(x, y, w, h, kinds, filter);
             if (found != null) return found;
-            return se.findFirst(x, y, w, h, filter);
+            return se.findFirst(x, y, w, h, kinds, filter);
         } else {
             for (GameObject obj : objects) {
+                if ((obj.kind().bit() & kinds) == 0) continue;
                 Position p = obj.getPosition();
                 if (p.x() >= x - w && p.x() <= x + w &&
                     p.y() >= y - h && p.y() <= y + h) {
@@ -141,6 +323,7 @@ public class QuadTree {
                  y + h < boundary.y - boundary.h);
     }
 
+    @Override
     public void getAllBoundaries(List<Rectangle> boundaries) {
         boundaries.add(boundary);
         if (divided) {
@@ -151,8 +334,11 @@ public class QuadTree {
         }
     }
     
+    @Override
     public void clear() {
+        if (parent == null) locations.byObject.clear();
         objects.clear();
+        size = 0;
         if (divided) {
             nw.clear();
             ne.clear();
@@ -6,16 +6,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.UUID;
-
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Sentinel implements GameObject {
-    @Builder.Default
     @JsonProperty("i")
-    private UUID id = UUID.randomUUID();
+    private int id;
     @JsonProperty("p")
     private Position position;
     @Builder.Default
@@ -51,7 +48,7 @@ public class Sentinel implements GameObject {
     private Weapon weapon = Weapon.basic();
 
     @Override
-    public UUID getId() {
+    public int getId() {
         return id;
     }
 
@@ -84,4 +81,9 @@ public class Sentinel implements GameObject {
     public int getSize() {
         return size;
     }
+
+    @Override
+    public EntityKind kind() {
+        return EntityKind.SENTINEL;
+    }
 }
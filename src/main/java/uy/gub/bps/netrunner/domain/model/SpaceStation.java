@@ -6,16 +6,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.UUID;
-
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class SpaceStation implements GameObject {
     @JsonProperty("i")
-    @Builder.Default
-    private UUID id = UUID.randomUUID();
+    private int id;
     
     @JsonProperty("p")
     private Position position;
@@ -37,7 +34,7 @@ public class SpaceStation implements GameObject {
     private int size = 4;
 
     @Override
-    public UUID getId() {
+    public int getId() {
         return id;
     }
 
@@ -70,4 +67,9 @@ public class SpaceStation implements GameObject {
     public int getSize() {
         return size;
     }
+
+    @Override
+    public EntityKind kind() {
+        return EntityKind.SPACE_STATION;
+    }
 }
@@ -0,0 +1,42 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Índice espacial del mundo. Las consultas usan rangos centrados (x, y) con semiancho w y semialto h,
+// y filtran por la posición actual del objeto. Las variantes con kinds (máscara de EntityKind) descartan por tipo
+// dentro del índice, antes de mirar la posición o llamar al filtro.
+public interface SpatialIndex {
+
+    boolean insert(GameObject obj);
+
+    // Reubica un objeto que pudo haberse movido (lo inserta si no estaba)
+    boolean update(GameObject obj);
+
+    boolean remove(GameObject obj);
+
+    // Quita los objetos que no se insertaron ni actualizaron desde el sweep anterior
+    void sweep();
+
+    default void query(double x, double y, double w, double h, Consumer<GameObject> action) {
+        query(x, y, w, h, EntityKind.ALL, action);
+    }
+
+    void query(double x, double y, double w, double h, int kinds, Consumer<GameObject> action);
+
+    default GameObject findFirst(double x, double y, double w, double h, Predicate<GameObject> filter) {
+        return findFirst(x, y, w, h, EntityKind.ALL, filter);
+    }
+
+    GameObject findFirst(double x, double y, double w, double h, int kinds, Predicate<GameObject> filter);
+
+    // Celdas o nodos ocupados, para el modo debug del cliente
+    void getAllBoundaries(List<QuadTree.Rectangle> boundaries);
+
+    QuadTree.Rectangle getBoundary();
+
+    int size();
+
+    void clear();
+}
@@ -0,0 +1,15 @@
+package uy.gub.bps.netrunner.domain.model;
+
+// Implementación de índice espacial elegida por configuración (netrunner.engine.spatial-index)
+public enum SpatialIndexType {
+    QUADTREE,
+    GRID;
+
+    // capacity solo aplica al quadtree: objetos por nodo antes de subdividir
+    public SpatialIndex create(QuadTree.Rectangle boundary, int capacity) {
+        return switch (this) {
+            case QUADTREE -> new QuadTree(boundary, capacity);
+            case GRID -> new UniformGrid(boundary, UniformGrid.DEFAULT_CELL_SIZE);
+        };
+    }
+}
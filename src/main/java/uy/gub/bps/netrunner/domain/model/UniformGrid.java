@@ -0,0 +1,333 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Grilla uniforme sobre arreglos primitivos: cada celda es una lista doblemente enlazada de slots.
+// Pensada para el mundo fijo de 200x200 con objetos mayormente de tamaño 1; moverse dentro de la celda no cuesta nada.
+public class UniformGrid implements SpatialIndex {
+    public static final double DEFAULT_CELL_SIZE = 8.0;
+    private static final int NONE = -1;
+    private static final int INITIAL_SLOTS = 256;
+
+    private final QuadTree.Rectangle boundary;
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int cols;
+    private final int rows;
+    // Primer slot de cada celda
+    private final int[] cellHead;
+
+    // Datos por slot; los slots libres se encadenan a través de next
+    private GameObject[] objects;
+    private int[] cellOf;
+    private int[] next;
+    private int[] prev;
+    private long[] stamps;
+    // EntityKind.bit() de cada slot, para filtrar por tipo sin tocar el objeto
+    private int[] kindBits;
+    private int freeHead = NONE;
+    private int slotCount;
+    private int size;
+    private long generation;
+
+    // Tabla objeto -> slot por identidad, con direccionamiento abierto para no boxear los índices
+    private GameObject[] keys;
+    private int[] values;
+    private int keyCount;
+
+    public UniformGrid(QuadTree.Rectangle boundary, double cellSize) {
+        this.boundary = boundary;
+        this.minX = boundary.x - boundary.w;
+        this.minY = boundary.y - boundary.h;
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(boundary.w * 2 / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(boundary.h * 2 / cellSize));
+        this.cellHead = new int[cols * rows];
+        Arrays.fill(cellHead, NONE);
+
+        objects = new GameObject[INITIAL_SLOTS];
+        cellOf = new int[INITIAL_SLOTS];
+        next = new int[INITIAL_SLOTS];
+        prev = new int[INITIAL_SLOTS];
+        stamps = new long[INITIAL_SLOTS];
+        kindBits = new int[INITIAL_SLOTS];
+        keys = new GameObject[INITIAL_SLOTS * 2];
+        values = new int[INITIAL_SLOTS * 2];
+    }
+
+    @Override
+    public boolean insert(GameObject obj) {
+        if (find(obj) != NONE) {
+            return update(obj);
+        }
+        int cell = cellIndex(obj.getPosition());
+        if (cell == NONE) {
+            return false;
+        }
+        int slot = allocateSlot();
+        objects[slot] = obj;
+        kindBits[slot] = obj.kind().bit();
+        stamps[slot] = generation;
+        link(slot, cell);
+        putKey(obj, slot);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean update(GameObject obj) {
+        int slot = find(obj);
+        if (slot == NONE) {
+            return insert(obj);
+        }
+        stamps[slot] = generation;
+        int cell = cellIndex(obj.getPosition());
+        if (cell == cellOf[slot]) {
+            return true;
+        }
+
+        unlink(slot);
+        if (cell == NONE) {
+            release(slot);
+            removeKey(obj);
+            return false;
+        }
+        link(slot, cell);
+        return true;
+    }
+
+    @Override
+    public boolean remove(GameObject obj) {
+        int slot = find(obj);
+        if (slot == NONE) {
+            return false;
+        }
+        unlink(slot);
+        release(slot);
+        removeKey(obj);
+        return true;
+    }
+
+    @Override
+    public void sweep() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (objects[slot] != null && stamps[slot] != generation) {
+                remove(objects[slot]);
+            }
+        }
+        generation++;
+    }
+
+    @Override
+    public void query(double x, double y, double w, double h, int kinds, Consumer<GameObject> action) {
+        if (!intersects(x, y, w, h)) {
+            return;
+        }
+        int c0 = col(x - w), c1 = col(x + w);
+        int r0 = row(y - h), r1 = row(y + h);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int slot = cellHead[r * cols + c]; slot != NONE; slot = next[slot]) {
+                    if ((kindBits[slot] & kinds) == 0) continue;
+                    GameObject obj = objects[slot];
+                    Position p = obj.getPosition();
+                    if (p.x() >= x - w && p.x() <= x + w &&
+                        p.y() >= y - h && p.y() <= y + h) {
+                        action.accept(obj);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public GameObject findFirst(double x, double y, double w, double h, int kinds, Predicate<GameObject> filter) {
+        if (!intersects(x, y, w, h)) {
+            return null;
+        }
+        int c0 = col(x - w), c1 = col(x + w);
+        int r0 = row(y - h), r1 = row(y + h);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int slot = cellHead[r * cols + c]; slot != NONE; slot = next[slot]) {
+                    if ((kindBits[slot] & kinds) == 0) continue;
+                    GameObject obj = objects[slot];
+                    Position p = obj.getPosition();
+                    if (p.x() >= x - w && p.x() <= x + w &&
+                        p.y() >= y - h && p.y() <= y + h &&
+                        filter.test(obj)) {
+                        return obj;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void getAllBoundaries(List<QuadTree.Rectangle> boundaries) {
+        boundaries.add(boundary);
+        double half = cellSize / 2;
+        for (int cell = 0; cell < cellHead.length; cell++) {
+            if (cellHead[cell] != NONE) {
+                int c = cell % cols;
+                int r = cell / cols;
+                boundaries.add(new QuadTree.Rectangle(minX + c * cellSize + half, minY + r * cellSize + half, half, half));
+            }
+        }
+    }
+
+    @Override
+    public QuadTree.Rectangle getBoundary() {
+        return boundary;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(cellHead, NONE);
+        Arrays.fill(objects, 0, slotCount, null);
+        Arrays.fill(keys, null);
+        slotCount = 0;
+        freeHead = NONE;
+        keyCount = 0;
+        size = 0;
+    }
+
+    private int cellIndex(Position p) {
+        if (!boundary.contains(p)) {
+            return NONE;
+        }
+        return row(p.y()) * cols + col(p.x());
+    }
+
+    private int col(double x) {
+        return Math.clamp((long) Math.floor((x - minX) / cellSize), 0, cols - 1);
+    }
+
+    private int row(double y) {
+        return Math.clamp((long) Math.floor((y - minY) / cellSize), 0, rows - 1);
+    }
+
+    private boolean intersects(double x, double y, double w, double h) {
+        return !(x - w > boundary.x + boundary.w ||
+                 x + w < boundary.x - boundary.w ||
+                 y - h > boundary.y + boundary.h ||
+                 y + h < boundary.y - boundary.h);
+    }
+
+    private void link(int slot, int cell) {
+        int head = cellHead[cell];
+        cellOf[slot] = cell;
+        prev[slot] = NONE;
+        next[slot] = head;
+        if (head != NONE) prev[head] = slot;
+        cellHead[cell] = slot;
+    }
+
+    private void unlink(int slot) {
+        int p = prev[slot];
+        int n = next[slot];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            cellHead[cellOf[slot]] = n;
+        }
+        if (n != NONE) prev[n] = p;
+    }
+
+    private int allocateSlot() {
+        if (freeHead != NONE) {
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        if (slotCount == objects.length) {
+            int capacity = objects.length * 2;
+            objects = Arrays.copyOf(objects, capacity);
+            cellOf = Arrays.copyOf(cellOf, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            stamps = Arrays.copyOf(stamps, capacity);
+            kindBits = Arrays.copyOf(kindBits, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void release(int slot) {
+        objects[slot] = null;
+        cellOf[slot] = NONE;
+        next[slot] = freeHead;
+        freeHead = slot;
+        size--;
+    }
+
+    private static int hash(GameObject obj) {
+        int h = System.identityHashCode(obj);
+        return h ^ (h >>> 16);
+    }
+
+    private int find(GameObject obj) {
+        int mask = keys.length - 1;
+        for (int i = hash(obj) & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == obj) return values[i];
+        }
+        return NONE;
+    }
+
+    private void putKey(GameObject obj, int slot) {
+        if ((keyCount + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = hash(obj) & mask;
+        while (keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = obj;
+        values[i] = slot;
+        keyCount++;
+    }
+
+    private void removeKey(GameObject obj) {
+        int mask = keys.length - 1;
+        int i = hash(obj) & mask;
+        while (keys[i] != obj) {
+            if (keys[i] == null) return;
+            i = (i + 1) & mask;
+        }
+        keys[i] = null;
+        keyCount--;
+
+        // Corrimiento hacia atrás: las entradas siguientes de la cadena ocupan el hueco si su posición ideal lo permite
+        for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            int k = hash(keys[j]) & mask;
+            boolean stays = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+            if (!stays) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                keys[j] = null;
+                i = j;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        GameObject[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new GameObject[capacity];
+        values = new int[capacity];
+        keyCount = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) putKey(oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package uy.gub.bps.netrunner.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+// Los efectos se envían solo a los jugadores cercanos; los marcados como globales llegan a todos
 public record VisualEffect(
     @JsonProperty("t") String type,
     @JsonProperty("x") double x,
@@ -10,18 +12,23 @@ public record VisualEffect(
     @JsonProperty("ty") Double ty,
     @JsonProperty("c") String color,
     @JsonProperty("sz") Integer size,
-    @JsonProperty("m") String message
+    @JsonProperty("m") String message,
+    @JsonIgnore boolean global
 ) {
     public VisualEffect(String type, double x, double y, String color) {
-        this(type, x, y, null, null, color, 1, null);
+        this(type, x, y, null, null, color, 1, null, false);
     }
     public VisualEffect(String type, double x, double y, String color, int size) {
-        this(type, x, y, null, null, color, size, null);
+        this(type, x, y, null, null, color, size, null, false);
     }
     public VisualEffect(String type, double x, double y, double tx, double ty, String color) {
-        this(type, x, y, tx, ty, color, 1, null);
+        this(type, x, y, tx, ty, color, 1, null, false);
     }
     public VisualEffect(String type, double x, double y, String color, String message) {
-        this(type, x, y, null, null, color, 1, message);
+        this(type, x, y, null, null, color, 1, message, false);
+    }
+
+    public VisualEffect asGlobal() {
+        return new VisualEffect(type, x, y, tx, ty, color, size, message, true);
     }
 }
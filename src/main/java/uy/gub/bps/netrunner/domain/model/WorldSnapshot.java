@@ -0,0 +1,253 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Estado inmutable del mundo al final de un tick. Las entidades dinámicas son copias,
+// por lo que la etapa de difusión puede leerlo mientras el motor simula el tick siguiente.
+@Getter
+@Builder(toBuilder = true)
+public class WorldSnapshot {
+    // Rango de visión para objetos detallados (Meteoritos, Ores, Proyectiles, etc.)
+    private static final double VIEW_RANGE = 40.0;
+    // Rango extendido para Nodos de Datos en el Radar (Puntos de interés)
+    private static final double NODE_RADAR_RANGE = 100.0;
+    // Los jugadores de una misma celda comparten la lista de objetos visibles; los rangos se amplían media celda
+    private static final double VIEW_CELL_SIZE = 10.0;
+
+    private final long tick;
+    private final Map<Integer, Player> players;
+    private final List<Sentinel> sentinels;
+    // Proyectiles y ores: objetos móviles que solo se envían dentro del rango de visión
+    private final List<GameObject> dynamicObjects;
+    // Agujeros de gusano y estaciones: siempre visibles en el radar
+    private final List<GameObject> radarObjects;
+    // Índice de objetos estáticos; el motor lo reemplaza en lugar de mutarlo
+    private final SpatialIndex staticIndex;
+    // Implementación usada para el índice de los objetos dinámicos copiados
+    private final SpatialIndexType indexType;
+    private final List<GameEvent> events;
+    private final Map<Integer, List<GameEvent>> privateEvents;
+    private final List<VisualEffect> effects;
+    private final Map<Integer, Double> vibrations;
+    private final int worldObjectCount;
+    private final int projectileCount;
+    // Solo se capturan si algún jugador tiene el modo debug activo
+    private final List<QuadTree.Rectangle> dynamicBoundaries;
+    private final List<QuadTree.Rectangle> staticBoundaries;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<SpatialIndex> dynamicIndex = new AtomicReference<>();
+    // Radar global (jugadores vivos, centinelas, agujeros de gusano y estaciones), igual para todos
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<List<GameObject>> radar = new AtomicReference<>();
+    // Objetos visibles por celda, calculados una vez por tick y compartidos entre los jugadores de la celda
+    @Getter(AccessLevel.NONE)
+    private final Map<Long, List<GameObject>> cellViews = new ConcurrentHashMap<>();
+    // Efectos por celda de vista (los cercanos más los globales), compartidos de la misma forma
+    @Getter(AccessLevel.NONE)
+    private final Map<Long, List<VisualEffect>> cellEffects = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<EffectBuckets> effectBuckets = new AtomicReference<>();
+
+    // Efectos del tick agrupados por celda según su posición; los globales se envían a todos
+    private record EffectBuckets(Map<Long, List<VisualEffect>> cells, List<VisualEffect> global) {
+    }
+
+    public GameState viewFor(int playerId) {
+        Player player = players.get(playerId);
+        if (player == null) return fullView();
+
+        List<GameObject> result = visibleObjects(player);
+
+        List<GameEvent> playerEvents = new ArrayList<>(events);
+        playerEvents.addAll(privateEventsFor(playerId));
+
+        Map<String, Object> debugData = player.isDebugMode() ? debugData(result.size()) : null;
+        return new GameState(result, playerEvents, effectsFor(player), vibrations.get(playerId), debugData);
+    }
+
+    // La lista devuelta es compartida con los demás jugadores de la celda: no debe modificarse
+    public List<GameObject> visibleObjects(Player player) {
+        double px = player.getPosition().x();
+        double py = player.getPosition().y();
+        long cx = cell(px);
+        long cy = cell(py);
+        List<GameObject> view = cellViews.computeIfAbsent(cellKey(cx, cy), key -> cellView(cx, cy));
+
+        // Siempre incluir al propio jugador (los vivos ya vienen en el radar)
+        if (player.getRespawnTimer() == 0) return view;
+        List<GameObject> withSelf = new ArrayList<>(view.size() + 1);
+        withSelf.addAll(view);
+        withSelf.add(player);
+        return withSelf;
+    }
+
+    // Efectos dentro del rango de visión de la celda del jugador más los marcados como globales; lista compartida
+    public List<VisualEffect> effectsFor(Player player) {
+        long cx = cell(player.getPosition().x());
+        long cy = cell(player.getPosition().y());
+        return cellEffects.computeIfAbsent(cellKey(cx, cy), key -> cellEffects(cx, cy));
+    }
+
+    private List<VisualEffect> cellEffects(long cx, long cy) {
+        EffectBuckets buckets = effectBuckets();
+        if (buckets.cells().isEmpty()) return buckets.global();
+
+        double x = (cx + 0.5) * VIEW_CELL_SIZE;
+        double y = (cy + 0.5) * VIEW_CELL_SIZE;
+        double range = VIEW_RANGE + 4.0 + VIEW_CELL_SIZE / 2;
+        long reach = (long) Math.ceil(range / VIEW_CELL_SIZE);
+
+        List<VisualEffect> result = new ArrayList<>(buckets.global());
+        for (long bx = cx - reach; bx <= cx + reach; bx++) {
+            for (long by = cy - reach; by <= cy + reach; by++) {
+                List<VisualEffect> bucket = buckets.cells().get(cellKey(bx, by));
+                if (bucket == null) continue;
+                for (VisualEffect effect : bucket) {
+                    if (Math.abs(effect.x() - x) <= range && Math.abs(effect.y() - y) <= range) {
+                        result.add(effect);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private EffectBuckets effectBuckets() {
+        EffectBuckets buckets = effectBuckets.get();
+        if (buckets == null) {
+            Map<Long, List<VisualEffect>> cells = new HashMap<>();
+            List<VisualEffect> global = new ArrayList<>();
+            for (VisualEffect effect : effects) {
+                if (effect.global()) {
+                    global.add(effect);
+                } else {
+                    cells.computeIfAbsent(cellKey(cell(effect.x()), cell(effect.y())), key -> new ArrayList<>()).add(effect);
+                }
+            }
+            buckets = new EffectBuckets(cells, Collections.unmodifiableList(global));
+            if (!effectBuckets.compareAndSet(null, buckets)) {
+                buckets = effectBuckets.get();
+            }
+        }
+        return buckets;
+    }
+
+    private static long cell(double coordinate) {
+        return (long) Math.floor(coordinate / VIEW_CELL_SIZE);
+    }
+
+    private static long cellKey(long cx, long cy) {
+        return (cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private List<GameObject> cellView(long cx, long cy) {
+        double x = (cx + 0.5) * VIEW_CELL_SIZE;
+        double y = (cy + 0.5) * VIEW_CELL_SIZE;
+        double halfCell = VIEW_CELL_SIZE / 2;
+
+        // Usamos un Set para evitar duplicados eficientemente y mantener el orden
+        Set<GameObject> resultSet = new LinkedHashSet<>();
+
+        // 1. Cercanía inmediata (vista detallada de todo tipo de objetos)
+        double range = VIEW_RANGE + 4.0 + halfCell;
+        dynamicIndex().query(x, y, range, range, resultSet::add);
+        // Los agujeros de gusano se toman de las copias del radar
+        staticIndex.query(x, y, range, range, EntityKind.ALL & ~EntityKind.WORMHOLE.bit(), resultSet::add);
+
+        // 2. Radar Global: jugadores vivos, centinelas, agujeros de gusano y estaciones
+        resultSet.addAll(radar());
+
+        // 3. Nodos de Datos (Radar Extendido)
+        double nodeRange = NODE_RADAR_RANGE + halfCell;
+        staticIndex.query(x, y, nodeRange, nodeRange, EntityKind.DATA_NODE.bit(), resultSet::add);
+
+        return Collections.unmodifiableList(new ArrayList<>(resultSet));
+    }
+
+    private List<GameObject> radar() {
+        List<GameObject> list = radar.get();
+        if (list == null) {
+            list = new ArrayList<>(players.size() + sentinels.size() + radarObjects.size());
+            for (Player p : players.values()) {
+                if (p.getRespawnTimer() == 0) list.add(p);
+            }
+            list.addAll(sentinels);
+            list.addAll(radarObjects);
+            if (!radar.compareAndSet(null, list)) {
+                list = radar.get();
+            }
+        }
+        return list;
+    }
+
+    // Este snapshot con los eventos de stale delante de los propios, para reemplazar a uno que no llegó a difundirse.
+    // Los efectos y vibraciones de stale se descartan: son visuales y ya quedaron viejos
+    public WorldSnapshot after(WorldSnapshot stale) {
+        List<GameEvent> mergedEvents = new ArrayList<>(stale.events.size() + events.size());
+        mergedEvents.addAll(stale.events);
+        mergedEvents.addAll(events);
+        Map<Integer, List<GameEvent>> mergedPrivate = new HashMap<>(stale.privateEvents);
+        privateEvents.forEach((playerId, own) -> mergedPrivate.merge(playerId, own, (earlier, later) -> {
+            List<GameEvent> merged = new ArrayList<>(earlier.size() + later.size());
+            merged.addAll(earlier);
+            merged.addAll(later);
+            return merged;
+        }));
+        return toBuilder().events(mergedEvents).privateEvents(mergedPrivate).build();
+    }
+
+    public List<GameEvent> privateEventsFor(int playerId) {
+        return privateEvents.getOrDefault(playerId, List.of());
+    }
+
+    public Map<String, Object> debugData(int visibleObjects) {
+        Map<String, Object> debugData = new java.util.HashMap<>();
+        debugData.put("dq", dynamicBoundaries != null ? dynamicBoundaries : List.of());
+        debugData.put("sq", staticBoundaries != null ? staticBoundaries : List.of());
+        debugData.put("tick", tick);
+        debugData.put("objs", visibleObjects);
+        debugData.put("sent", sentinels.size());
+        debugData.put("proj", projectileCount);
+        debugData.put("players", players.size());
+        debugData.put("world_objs", worldObjectCount);
+        return debugData;
+    }
+
+    private GameState fullView() {
+        List<GameObject> allObjects = new ArrayList<>(players.values());
+        allObjects.addAll(sentinels);
+        allObjects.addAll(dynamicObjects);
+        allObjects.addAll(radarObjects);
+        QuadTree.Rectangle b = staticIndex.getBoundary();
+        staticIndex.query(b.x, b.y, b.w, b.h, EntityKind.ALL & ~EntityKind.mask(EntityKind.WORMHOLE, EntityKind.SPACE_STATION), allObjects::add);
+        return new GameState(allObjects, new ArrayList<>(events), effects, 0.0, null);
+    }
+
+    private SpatialIndex dynamicIndex() {
+        SpatialIndex index = dynamicIndex.get();
+        if (index == null) {
+            // Se construye en la etapa de difusión, fuera del hilo de simulación
+            index = indexType.create(staticIndex.getBoundary(), 10);
+            for (GameObject obj : dynamicObjects) {
+                index.insert(obj);
+            }
+            if (!dynamicIndex.compareAndSet(null, index)) {
+                index = dynamicIndex.get();
+            }
+        }
+        return index;
+    }
+}
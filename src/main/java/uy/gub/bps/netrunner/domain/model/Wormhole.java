@@ -6,21 +6,19 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.UUID;
-
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Wormhole implements GameObject {
     @JsonProperty("i")
-    private final UUID id = UUID.randomUUID();
+    private int id;
     
     @JsonProperty("p")
     private Position position;
     
     @JsonProperty("li")
-    private UUID linkedId;
+    private int linkedId;
     
     @JsonProperty("n")
     @Builder.Default
@@ -43,7 +41,7 @@ public class Wormhole implements GameObject {
     private long spawnTime = System.currentTimeMillis();
 
     @Override
-    public UUID getId() {
+    public int getId() {
         return id;
     }
 
@@ -76,4 +74,9 @@ public class Wormhole implements GameObject {
     public int getSize() {
         return size;
     }
+
+    @Override
+    public EntityKind kind() {
+        return EntityKind.WORMHOLE;
+    }
 }
@@ -0,0 +1,71 @@
+package uy.gub.bps.netrunner.domain.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Cola acotada de muchos productores y un solo consumidor, sin locks (esquema de secuencias por celda de Vyukov).
+// Los hilos de red reservan una celda con un CAS sobre tail, copian el comando en ella y la publican con su
+// número de secuencia; el hilo de simulación lee en orden desde head sin ninguna operación atómica compartida.
+// Las celdas se asignan una sola vez: encolar no crea objetos.
+final class CommandRing {
+    private final InputCommand[] slots;
+    // Secuencia de cada celda: == posición si está libre para esa vuelta, == posición + 1 si ya tiene dato
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Solo los toca el consumidor: próxima celda a leer y primera leída que todavía no se liberó
+    private long head;
+    private long released;
+
+    CommandRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser potencia de 2: " + capacity);
+        }
+        this.slots = new InputCommand[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new InputCommand();
+            sequences.set(i, i);
+        }
+    }
+
+    // Copia el comando a una celda libre; devuelve false si la cola está llena (el productor nunca espera)
+    boolean offer(InputCommand command) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long diff = sequences.getAcquire(slot) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[slot].copyFrom(command);
+                    sequences.setRelease(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                // Otro productor ganó la celda: se reintenta con la posición actual
+                position = tail.get();
+            }
+        }
+    }
+
+    // Solo desde el hilo consumidor. La celda sigue siendo válida hasta release(); null si no hay nada publicado.
+    InputCommand poll() {
+        int slot = (int) (head & mask);
+        if (sequences.getAcquire(slot) != head + 1) return null;
+        head++;
+        return slots[slot];
+    }
+
+    // Devuelve a los productores las celdas leídas desde el último release()
+    void release() {
+        for (; released < head; released++) {
+            int slot = (int) (released & mask);
+            slots[slot].set(0, null, 0, 0, 0, null, 0);
+            sequences.setRelease(slot, released + slots.length);
+        }
+    }
+}
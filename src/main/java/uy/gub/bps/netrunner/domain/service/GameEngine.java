@@ -4,17 +4,24 @@ import uy.gub.bps.netrunner.domain.model.GameObject;
 import uy.gub.bps.netrunner.domain.model.GameState;
 import uy.gub.bps.netrunner.domain.model.InputMessage;
 import uy.gub.bps.netrunner.domain.model.Player;
-
-import java.util.UUID;
+import uy.gub.bps.netrunner.domain.model.WorldSnapshot;
 
 public interface GameEngine {
-    Player addPlayer(UUID id, String name);
-    void removePlayer(UUID id);
-    void processInput(UUID playerId, InputMessage input);
+    // El id del jugador lo asigna el motor con sus propios handles
+    Player addPlayer(String name);
+    void removePlayer(int id);
+    void processInput(int playerId, InputMessage input);
+    // Entrada ya decodificada por la capa de red (protocolo binario)
+    void processInput(InputCommand command);
     void update();
-    java.util.List<String> getPendingEvents();
-    java.util.List<String> getPendingEvents(UUID playerId);
-    java.util.List<uy.gub.bps.netrunner.domain.model.VisualEffect> getPendingEffects();
+    // Captura el estado del último tick y consume los eventos, efectos y vibraciones pendientes
+    WorldSnapshot snapshot();
     GameState getCurrentState();
-    GameState getCurrentState(UUID playerId);
+    GameState getCurrentState(int playerId);
+    // Tiempos por fase del último update(); solo debe leerse desde el hilo que llama a update()
+    TickProfile getTickProfile();
+    // Libera los hilos propios del motor; se llama al cerrar su sala
+    void shutdown();
+    // Handles asignados y no liberados; vuelve a 0 después de shutdown()
+    int liveHandles();
 }
@@ -0,0 +1,33 @@
+package uy.gub.bps.netrunner.domain.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.gub.bps.netrunner.domain.model.SpatialIndexType;
+
+// Crea un motor por sala. Todos comparten el pool de las fases paralelas: con muchas salas
+// un pool por motor multiplicaría los hilos sin ganar núcleos.
+@Component
+public class GameEngineFactory {
+
+    private final int tickRate;
+    private final SpatialIndexType spatialIndexType;
+    private final PhaseExecutor phases;
+
+    public GameEngineFactory(@Value("${netrunner.loop.tick-rate:30}") int tickRate,
+                             @Value("${netrunner.engine.spatial-index:QUADTREE}") SpatialIndexType spatialIndexType,
+                             @Value("${netrunner.engine.parallelism:0}") int parallelism) {
+        this.tickRate = tickRate;
+        this.spatialIndexType = spatialIndexType;
+        this.phases = new PhaseExecutor(parallelism);
+    }
+
+    public GameEngine create() {
+        return new GameEngineImpl(tickRate, spatialIndexType, phases, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        phases.shutdown();
+    }
+}
@@ -1,35 +1,77 @@
 package uy.gub.bps.netrunner.domain.service;
 
-import org.springframework.stereotype.Service;
 import uy.gub.bps.netrunner.domain.model.*;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
-@Service
+// Un mundo de 200x200 independiente; cada sala tiene el suyo (ver GameEngineFactory)
 public class GameEngineImpl implements GameEngine {
 
-    private final Map<UUID, Player> players = new ConcurrentHashMap<>();
-    private final Map<UUID, GameObject> worldObjects = new ConcurrentHashMap<>();
-    private final Map<UUID, Projectile> projectiles = new ConcurrentHashMap<>();
-    private final Map<UUID, Sentinel> sentinels = new ConcurrentHashMap<>();
-    private final Map<UUID, Long> lastTeleportTime = new ConcurrentHashMap<>();
-    private final Map<UUID, UUID> playerInWormhole = new ConcurrentHashMap<>();
-    private final Map<UUID, Long> wormholeStartTime = new ConcurrentHashMap<>();
-    private final Map<UUID, java.util.Set<String>> activeInputs = new ConcurrentHashMap<>();
-    private final java.util.Queue<String> pendingEvents = new java.util.concurrent.ConcurrentLinkedQueue<>();
-    private final Map<UUID, java.util.Queue<String>> privateEvents = new ConcurrentHashMap<>();
+    private final Map<Integer, Player> players = new ConcurrentHashMap<>();
+    // Entidades del mundo por tipo: cada fase recorre solo los tipos que le interesan
+    private final EntityRegistry<Meteorite> meteorites = new EntityRegistry<>();
+    private final EntityRegistry<Ore> ores = new EntityRegistry<>();
+    private final EntityRegistry<DataNode> dataNodes = new EntityRegistry<>();
+    private final EntityRegistry<Wormhole> wormholes = new EntityRegistry<>();
+    private final EntityRegistry<SpaceStation> stations = new EntityRegistry<>();
+    // Handles de las entidades de este mundo; se descartan con el motor
+    private final EntityHandles handles = new EntityHandles();
+    private final ProjectileStore projectiles = new ProjectileStore(handles);
+    // Intenciones de la fase paralela de proyectiles, indexadas por slot
+    private static final byte PROJECTILE_FLYING = 0;
+    private static final byte PROJECTILE_EXPIRED = 1;
+    private static final byte PROJECTILE_BLOCKED = 2;
+    private static final byte PROJECTILE_HIT = 3;
+    // Resultado del commit: el slot se libera al terminar la fase
+    private static final byte PROJECTILE_REMOVED = 4;
+    private byte[] projectileOutcomes = new byte[0];
+    private GameObject[] projectileHits = new GameObject[0];
+    private double[] projectileHitX = new double[0];
+    private double[] projectileHitY = new double[0];
+    private final Map<Integer, Sentinel> sentinels = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> lastTeleportTime = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> playerInWormhole = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> wormholeStartTime = new ConcurrentHashMap<>();
+    // Máscara de direcciones mantenidas por jugador (InputCommand.UP...); la escribe solo el tick
+    private final Map<Integer, Integer> activeInputs = new ConcurrentHashMap<>();
+    // Entradas de los hilos de red hacia el tick; se vacía al comienzo de cada update()
+    private static final int INPUT_CAPACITY = 8192;
+    private final CommandRing inputs = new CommandRing(INPUT_CAPACITY);
+    private final java.util.concurrent.atomic.AtomicLong droppedInputs = new java.util.concurrent.atomic.AtomicLong();
+    // Estado de la consolidación de un tick: direcciones pulsadas en el tick y último disparo de cada jugador
+    private final Map<Integer, Integer> tappedInputs = new java.util.HashMap<>();
+    private final Map<Integer, InputCommand> pendingShots = new java.util.LinkedHashMap<>();
+    private final java.util.Queue<GameEvent> pendingEvents = new java.util.concurrent.ConcurrentLinkedQueue<>();
+    private final Map<Integer, java.util.Queue<GameEvent>> privateEvents = new ConcurrentHashMap<>();
     private final java.util.Queue<VisualEffect> pendingEffects = new java.util.concurrent.ConcurrentLinkedQueue<>();
-    private final Map<UUID, Double> pendingVibrations = new ConcurrentHashMap<>();
+    private final Map<Integer, Double> pendingVibrations = new ConcurrentHashMap<>();
     private final Random random = new Random();
-    private final java.util.concurrent.ExecutorService virtualExecutor = java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor();
-
-    private QuadTree dynamicQuadTree;
-    private QuadTree staticQuadTree;
+    private final PhaseExecutor phases;
+    // Los motores creados por GameEngineFactory comparten su pool y no deben cerrarlo
+    private final boolean ownsPhases;
+    // La sala puede cerrarse desde un hilo de red con un tick en curso en el GameLoop: update() y shutdown() se excluyen
+    private final Object lifecycle = new Object();
+    private boolean closed;
+    private final TickProfile profile = new TickProfile();
+    // Franjas del mundo para las fases por región; el halo cubre el mayor alcance de una interacción
+    private final RegionPartition regions;
+    // Salida de cada franja durante un commit por regiones; se vuelca en orden de franja desde el hilo del tick
+    private final ThreadLocal<RegionOutput> regionOutput = new ThreadLocal<>();
+    private final List<RegionOutput> outputsByRegion = new ArrayList<>();
+    // Las fases paralelas consultan el índice dinámico a la vez; solo updateSpatialGrid lo modifica
+    private final java.util.concurrent.locks.ReadWriteLock indexLock = new java.util.concurrent.locks.ReentrantReadWriteLock();
+
+    private final SpatialIndexType spatialIndexType;
+    // Tipos de cada índice: las consultas saltean el índice que no puede contener ninguno de los pedidos
+    private static final int DYNAMIC_KINDS = EntityKind.mask(EntityKind.PLAYER, EntityKind.SENTINEL, EntityKind.ORE);
+    private static final int STATIC_KINDS = EntityKind.mask(EntityKind.METEORITE, EntityKind.DATA_NODE, EntityKind.WORMHOLE, EntityKind.SPACE_STATION);
+    private final SpatialIndex dynamicIndex;
+    // Se reemplaza (no se muta) al reconstruirse para que los snapshots publicados sigan siendo válidos
+    private volatile SpatialIndex staticIndex;
     private static final int WIDTH = 200;
     private static final int HEIGHT = 200;
     private static final double ACCEL = 0.012;
@@ -39,10 +81,18 @@ public class GameEngineImpl implements GameEngine {
     private static final int SENTINELS_PER_PLAYER = 10;
     private static final long BOSS_SPAWN_INTERVAL = 300000; // 5 minutes
     private static final long FIRE_WALL_SPAWN_INTERVAL = 600000; // 10 minutes
+    // Las constantes físicas (ACCEL, MAX_SPEED, velocidades de proyectil) están expresadas por tick a esta frecuencia
+    private static final int BASE_TICK_RATE = 30;
+    // Alcance de una interacción desde la entidad que la causa: explosión (2.5) más medio tamaño del jefe más grande (4)
+    private static final double INTERACTION_REACH = 6.5;
+    private static final double MAX_PROJECTILE_STEP = 0.8;
+    private final double stepScale;
+    private final double frictionPerStep;
     private long tickCount = 0;
     private long lastBossSpawnTime = 0;
     private long lastFireWallSpawnTime = 0;
     private boolean staticObjectsChanged = false;
+    private int sentinelsPerPlayer = SENTINELS_PER_PLAYER;
 
     // GitHub Dark Palette Symbols & Colors
     private static final String[] SYMBOLS = {"[P]", "{X}", "(O)", "<V>", "/A\\", "0x1"};
@@ -56,8 +106,25 @@ public class GameEngineImpl implements GameEngine {
     };
 
     public GameEngineImpl() {
-        dynamicQuadTree = new QuadTree(new QuadTree.Rectangle(WIDTH/2.0, HEIGHT/2.0, WIDTH/2.0, HEIGHT/2.0), 10);
-        staticQuadTree = new QuadTree(new QuadTree.Rectangle(WIDTH/2.0, HEIGHT/2.0, WIDTH/2.0, HEIGHT/2.0), 20);
+        this(BASE_TICK_RATE, SpatialIndexType.QUADTREE, 0);
+    }
+
+    public GameEngineImpl(int tickRate, SpatialIndexType spatialIndexType, int parallelism) {
+        this(tickRate, spatialIndexType, new PhaseExecutor(parallelism), true);
+    }
+
+    GameEngineImpl(int tickRate, SpatialIndexType spatialIndexType, PhaseExecutor phases, boolean ownsPhases) {
+        this.phases = phases;
+        this.ownsPhases = ownsPhases;
+        this.stepScale = (double) BASE_TICK_RATE / tickRate;
+        this.frictionPerStep = Math.pow(FRICTION, stepScale);
+        this.regions = new RegionPartition(WIDTH, INTERACTION_REACH + 2 * MAX_PROJECTILE_STEP * stepScale, phases.getParallelism());
+        for (int r = 0; r < regions.regions(); r++) {
+            outputsByRegion.add(new RegionOutput());
+        }
+        this.spatialIndexType = spatialIndexType;
+        dynamicIndex = spatialIndexType.create(worldBoundary(), 10);
+        staticIndex = newStaticIndex();
         initWorld();
         updateStaticGrid();
         staticObjectsChanged = false;
@@ -106,10 +173,11 @@ public class GameEngineImpl implements GameEngine {
     private void spawnSpaceStation() {
         Position pos = getRandomKeyPosition(4, 50.0);
         SpaceStation station = SpaceStation.builder()
+                .id(handles.allocate())
                 .position(pos)
-                .name("STATION_" + (worldObjects.values().stream().filter(o -> o instanceof SpaceStation).count() + 1))
+                .name("STATION_" + (stations.size() + 1))
                 .build();
-        worldObjects.put(station.getId(), station);
+        stations.add(station);
         staticObjectsChanged = true;
     }
 
@@ -125,11 +193,13 @@ public class GameEngineImpl implements GameEngine {
         }
         
         Wormhole w1 = Wormhole.builder()
+                .id(handles.allocate())
                 .position(pos1)
                 .size(5)
                 .spawnTime(System.currentTimeMillis())
                 .build();
         Wormhole w2 = Wormhole.builder()
+                .id(handles.allocate())
                 .position(pos2)
                 .linkedId(w1.getId())
                 .size(5)
@@ -137,12 +207,13 @@ public class GameEngineImpl implements GameEngine {
                 .build();
         w1.setLinkedId(w2.getId());
         
-        worldObjects.put(w1.getId(), w1);
-        worldObjects.put(w2.getId(), w2);
+        wormholes.add(w1);
+        wormholes.add(w2);
     }
 
     private void spawnSentinel() {
         Sentinel sentinel = Sentinel.builder()
+                .id(handles.allocate())
                 .position(getRandomEmptyPosition(1))
                 .build();
         sentinels.put(sentinel.getId(), sentinel);
@@ -150,6 +221,7 @@ public class GameEngineImpl implements GameEngine {
 
     private void spawnSentinelBoss() {
         Sentinel boss = Sentinel.builder()
+                .id(handles.allocate())
                 .position(getRandomEmptyPosition(3))
                 .name("NULL")
                 .symbol("Ω")
@@ -162,11 +234,12 @@ public class GameEngineImpl implements GameEngine {
                 .weapon(Weapon.laser()) // Boss uses LASER
                 .build();
         sentinels.put(boss.getId(), boss);
-        pendingEvents.add("[#ff4500]CRITICAL_ALERT: NULL detected in sector!");
+        emit(new GameEvent(EventCode.NULL_DETECTED));
     }
 
     private void spawnFireWallBoss() {
         Sentinel boss = Sentinel.builder()
+                .id(handles.allocate())
                 .position(getRandomEmptyPosition(8))
                 .name("FIRE_WALL")
                 .symbol("█")
@@ -181,7 +254,7 @@ public class GameEngineImpl implements GameEngine {
                 .vy(0.005)
                 .build();
         sentinels.put(boss.getId(), boss);
-        pendingEvents.add("[#ff3300]SYSTEM_FAILURE: FIRE_WALL deployment detected. Brace for impact!");
+        emit(new GameEvent(EventCode.FIREWALL_DEPLOYED));
     }
 
     private void spawnLargeResourceCluster(int centerX, int centerY) {
@@ -203,6 +276,7 @@ public class GameEngineImpl implements GameEngine {
                         
                         Ore.OreType type = selectOreType();
                         Meteorite met = Meteorite.builder()
+                                .id(handles.allocate())
                                 .position(pos)
                                 .symbol("#")
                                 .color(hasResources ? type.color : "#484f58")
@@ -211,7 +285,7 @@ public class GameEngineImpl implements GameEngine {
                                 .resourceType(hasResources ? type : null)
                                 .health(hasResources ? 3.0 : 1.0)
                                 .build();
-                        worldObjects.put(met.getId(), met);
+                        meteorites.add(met);
                     }
                 }
             }
@@ -239,6 +313,7 @@ public class GameEngineImpl implements GameEngine {
                     Ore.OreType type = selectOreType();
                     boolean hasResources = random.nextInt(100) < 15; // 15% chance (antes 30%)
                     Meteorite met = Meteorite.builder()
+                            .id(handles.allocate())
                             .position(pos)
                             .symbol("#")
                             .color(hasResources ? type.color : "#484f58")
@@ -247,7 +322,7 @@ public class GameEngineImpl implements GameEngine {
                             .resourceType(hasResources ? type : null)
                             .health(hasResources ? 3.0 : 1.0)
                             .build();
-                    worldObjects.put(met.getId(), met);
+                    meteorites.add(met);
                 }
             }
         }
@@ -257,6 +332,7 @@ public class GameEngineImpl implements GameEngine {
         Position pos = getRandomEmptyPosition(size);
         double health = size * 5.0; // Más vida
         Meteorite met = Meteorite.builder()
+                .id(handles.allocate())
                 .position(pos)
                 .symbol("#")
                 .color("#484f58")
@@ -264,18 +340,22 @@ public class GameEngineImpl implements GameEngine {
                 .health(health)
                 .size(size)
                 .build();
-        worldObjects.put(met.getId(), met);
+        meteorites.add(met);
     }
 
     private void spawnDataNode() {
+        // Usa el Random compartido y asigna un handle: desde un commit por regiones espera al hilo del tick
+        if (defer(this::spawnDataNode)) return;
         DataNode node = new DataNode();
+        node.setId(handles.allocate());
         node.setPosition(getRandomEmptyPosition(1));
-        worldObjects.put(node.getId(), node);
+        dataNodes.add(node);
         staticObjectsChanged = true;
     }
 
     @Override
-    public Player addPlayer(UUID id, String name) {
+    public Player addPlayer(String name) {
+        int id = handles.allocate();
         privateEvents.put(id, new java.util.concurrent.ConcurrentLinkedQueue<>());
         String uniqueName = getUniqueName(name);
         Player player = Player.builder()
@@ -295,7 +375,7 @@ public class GameEngineImpl implements GameEngine {
                 .lastDirection("UP")
                 .build();
         players.put(id, player);
-        pendingEvents.add("[#58a6ff]Agent " + uniqueName + " uplink established.");
+        emit(new GameEvent(EventCode.PLAYER_JOINED, id, uniqueName, player.getColor()));
         return player;
     }
 
@@ -327,13 +407,13 @@ public class GameEngineImpl implements GameEngine {
             final Position p = pos;
             final double dSq = currentMinDist * currentMinDist;
             
-            boolean tooClose = worldObjects.values().stream()
-                    .filter(o -> o instanceof SpaceStation || o instanceof Wormhole)
-                    .anyMatch(o -> {
-                        double dx = o.getPosition().x() - p.x();
-                        double dy = o.getPosition().y() - p.y();
-                        return dx*dx + dy*dy < dSq;
-                    });
+            boolean tooClose = false;
+            for (int i = 0; i < stations.size() && !tooClose; i++) {
+                tooClose = distanceSq(stations.get(i), p) < dSq;
+            }
+            for (int i = 0; i < wormholes.size() && !tooClose; i++) {
+                tooClose = distanceSq(wormholes.get(i), p) < dSq;
+            }
             
             if (!tooClose && !isOccupied(pos, size)) {
                 return pos;
@@ -343,6 +423,12 @@ public class GameEngineImpl implements GameEngine {
         return getRandomEmptyPosition(size);
     }
 
+    private static double distanceSq(GameObject o, Position p) {
+        double dx = o.getPosition().x() - p.x();
+        double dy = o.getPosition().y() - p.y();
+        return dx * dx + dy * dy;
+    }
+
     private Position getRandomEmptyPosition(int size) {
         Position pos;
         int attempts = 0;
@@ -368,53 +454,89 @@ public class GameEngineImpl implements GameEngine {
     }
 
     @Override
-    public void removePlayer(UUID id) {
+    public void removePlayer(int id) {
         Player player = players.remove(id);
         activeInputs.remove(id);
         privateEvents.remove(id);
         if (player != null) {
-            pendingEvents.add("[#f85149]Agent " + player.getName() + " connection lost.");
+            handles.release(id);
+            emit(new GameEvent(EventCode.PLAYER_LEFT, id));
         }
     }
 
+    // Corre en los hilos de red: solo interpreta y encola, el estado del jugador lo toca únicamente el tick
     @Override
-    public void processInput(UUID playerId, InputMessage input) {
-        Player player = players.get(playerId);
-        if (player == null || player.getRespawnTimer() > 0) return;
-
-        switch (input.getType().toUpperCase()) {
-            case "MOVE_START" -> activeInputs.computeIfAbsent(playerId, k -> java.util.concurrent.ConcurrentHashMap.newKeySet()).add(input.getPayload().toUpperCase());
-            case "MOVE_STOP" -> {
-                java.util.Set<String> inputs = activeInputs.get(playerId);
-                if (inputs != null) inputs.remove(input.getPayload().toUpperCase());
-            }
-            case "SHOOT" -> {
-                if (input.getPayload() != null && input.getPayload().contains(",")) {
-                    try {
-                        String[] parts = input.getPayload().split(",");
-                        double tx = Double.parseDouble(parts[0]);
-                        double ty = Double.parseDouble(parts[1]);
-                        handleShootTowards(player, tx, ty);
-                    } catch (Exception e) {
-                        handleShoot(player);
+    public void processInput(int playerId, InputMessage input) {
+        InputCommand command = new InputCommand();
+        if (command.parse(playerId, input, System.nanoTime())) processInput(command);
+    }
+
+    // El comando se copia a la cola: el llamador puede reutilizarlo en cuanto vuelve
+    @Override
+    public void processInput(InputCommand command) {
+        if (!inputs.offer(command)) {
+            droppedInputs.incrementAndGet();
+        }
+    }
+
+    // Aplica los comandos llegados desde el tick anterior, en orden de llegada salvo lo que se consolida:
+    // de los disparos de un jugador vale el último (el cooldown no deja disparar más de uno por tick) y
+    // una dirección pulsada y soltada dentro del mismo tick acelera igual una vez.
+    private void drainInputs() {
+        long start = profile.mark();
+        int count = 0;
+        long maxLatency = 0;
+        tappedInputs.clear();
+        pendingShots.clear();
+        // Las celdas leídas (y los disparos pendientes que apuntan a ellas) valen hasta release()
+        try {
+            InputCommand command;
+            while ((command = inputs.poll()) != null) {
+                count++;
+                maxLatency = Math.max(maxLatency, start - command.receivedNanos());
+                Player player = players.get(command.playerId());
+                if (player == null || player.getRespawnTimer() > 0) continue;
+
+                int id = command.playerId();
+                int value = command.value();
+                switch (command.kind()) {
+                    case MOVE -> {
+                        int held = activeInputs.getOrDefault(id, 0);
+                        tappedInputs.merge(id, value & ~held, (a, b) -> a | b);
+                        if (value == 0) activeInputs.remove(id);
+                        else activeInputs.put(id, value);
                     }
-                } else {
-                    handleShoot(player);
+                    case MOVE_START -> {
+                        activeInputs.merge(id, value, (a, b) -> a | b);
+                        tappedInputs.merge(id, value, (a, b) -> a | b);
+                    }
+                    case MOVE_STOP -> activeInputs.computeIfPresent(id, (k, mask) -> (mask & ~value) == 0 ? null : mask & ~value);
+                    case SHOOT -> pendingShots.put(id, command);
+                    case CHANGE_NAME -> handleChangeName(player, command.text());
+                    case CHANGE_COLOR -> handleChangeColor(player);
+                    case SCANNER -> player.setScannerActive(command.value() != 0);
+                    case CHAT -> handleChat(player, command.text());
+                    case BUY -> handleBuy(player, command.text());
                 }
             }
-            case "CHANGE_NAME" -> handleChangeName(player, input.getPayload());
-            case "CHANGE_COLOR" -> handleChangeColor(player);
-            case "SCANNER_STATE" -> player.setScannerActive(Boolean.parseBoolean(input.getPayload()));
-            case "CHAT" -> handleChat(player, input.getPayload());
-            case "BUY" -> handleBuy(player, input.getPayload());
+
+            for (InputCommand shot : pendingShots.values()) {
+                Player player = players.get(shot.playerId());
+                if (player == null) continue;
+                if (shot.aimed()) handleShootTowards(player, shot.x(), shot.y());
+                else handleShoot(player);
+            }
+        } finally {
+            inputs.release();
         }
+        profile.recordInputs(count, maxLatency, droppedInputs.getAndSet(0));
     }
 
     private void handleBuy(Player player, String item) {
         if (item == null) return;
         
         // Verificar si está cerca de una estación
-        GameObject station = findFirstInGrid(player.getPosition().x(), player.getPosition().y(), 10.0, o -> o instanceof SpaceStation);
+        GameObject station = findFirstInGrid(player.getPosition().x(), player.getPosition().y(), 10.0, EntityKind.SPACE_STATION.bit(), o -> true);
         if (station == null) {
             addPrivateEvent(player.getId(), "[#f85149]ERROR: No space station nearby.");
             return;
@@ -539,7 +661,7 @@ public class GameEngineImpl implements GameEngine {
         int nextIndex = (currentIndex + 1) % COLORS.length;
         String newColor = COLORS[nextIndex];
         player.setColor(newColor);
-        pendingEvents.add("[" + newColor + "]Agent " + player.getName() + " updated signature color.");
+        emit(new GameEvent(EventCode.COLOR_CHANGED, player.getId(), newColor));
     }
 
     private void handleChat(Player player, String message) {
@@ -552,7 +674,7 @@ public class GameEngineImpl implements GameEngine {
         }
 
         if (sanitized.length() > 100) sanitized = sanitized.substring(0, 100);
-        pendingEvents.add("[" + player.getColor() + "]" + player.getName() + ": [#c9d1d9]" + sanitized);
+        emit(new GameEvent(EventCode.CHAT, player.getId(), sanitized));
     }
 
     private void handleCommand(Player sender, String message) {
@@ -590,8 +712,8 @@ public class GameEngineImpl implements GameEngine {
                     sb.append(parts[i]).append(" ");
                 }
                 String whisper = sb.toString().trim();
-                addPrivateEvent(target.getId(), "[#bc8cff][WHISPER] " + sender.getName() + ": " + whisper);
-                addPrivateEvent(sender.getId(), "[#bc8cff][TO " + target.getName() + "]: " + whisper);
+                addPrivateEvent(target.getId(), new GameEvent(EventCode.WHISPER_IN, sender.getId(), whisper));
+                addPrivateEvent(sender.getId(), new GameEvent(EventCode.WHISPER_OUT, target.getId(), whisper));
             }
             case "!weapons", "!weapon" -> {
                 addPrivateEvent(sender.getId(), "[#d29922]>>> AVAILABLE WEAPONS <<<");
@@ -697,14 +819,14 @@ public class GameEngineImpl implements GameEngine {
                 .orElse(null);
     }
 
-    private void applyAcceleration(Player player, String direction) {
+    private void applyAcceleration(Player player, int direction) {
         double currentMaxSpeed = player.isScannerActive() ? MAX_SPEED / 2.0 : MAX_SPEED;
-        double accel = player.isScannerActive() ? ACCEL / 2.0 : ACCEL;
+        double accel = (player.isScannerActive() ? ACCEL / 2.0 : ACCEL) * stepScale;
         switch (direction) {
-            case "UP" -> player.setVy(player.getVy() - accel);
-            case "DOWN" -> player.setVy(player.getVy() + accel);
-            case "LEFT" -> player.setVx(player.getVx() - accel);
-            case "RIGHT" -> player.setVx(player.getVx() + accel);
+            case InputCommand.UP -> player.setVy(player.getVy() - accel);
+            case InputCommand.DOWN -> player.setVy(player.getVy() + accel);
+            case InputCommand.LEFT -> player.setVx(player.getVx() - accel);
+            case InputCommand.RIGHT -> player.setVx(player.getVx() + accel);
         }
 
         // Normalizar velocidad si excede el máximo
@@ -749,11 +871,12 @@ public class GameEngineImpl implements GameEngine {
         addVibration(player.getId(), w.getVibration());
     }
 
-    private void addVibration(UUID playerId, double amount) {
+    private void addVibration(int playerId, double amount) {
+        if (defer(() -> addVibration(playerId, amount))) return;
         pendingVibrations.merge(playerId, amount, (oldVal, newVal) -> Math.min(1.0, oldVal + newVal));
     }
 
-    private void fireWeapon(UUID ownerId, Position pos, String color, Weapon weapon, double targetX, double targetY) {
+    private void fireWeapon(int ownerId, Position pos, String color, Weapon weapon, double targetX, double targetY) {
         double dx = targetX - pos.x();
         double dy = targetY - pos.y();
         double dist = Math.sqrt(dx * dx + dy * dy);
@@ -778,7 +901,7 @@ public class GameEngineImpl implements GameEngine {
         }
     }
 
-    private void createProjectile(UUID ownerId, Position pos, double vx, double vy, String color, double spread, double range, double damage, boolean explosive, double angleOffset, String symbol) {
+    private void createProjectile(int ownerId, Position pos, double vx, double vy, String color, double spread, double range, double damage, boolean explosive, double angleOffset, String symbol) {
         double angle = Math.atan2(vy, vx) + angleOffset;
         angle += (random.nextDouble() - 0.5) * spread;
         
@@ -786,32 +909,20 @@ public class GameEngineImpl implements GameEngine {
         double finalVx = Math.cos(angle) * speed;
         double finalVy = Math.sin(angle) * speed;
 
-        Projectile projectile = Projectile.builder()
-                .position(pos)
-                .vx(finalVx)
-                .vy(finalVy)
-                .maxRange(range)
-                .damage(damage)
-                .explosive(explosive)
-                .ownerId(ownerId)
-                .color(color)
-                .symbol(symbol)
-                .build();
-        projectiles.put(projectile.getId(), projectile);
+        projectiles.spawn(ownerId, pos.x(), pos.y(), finalVx, finalVy, range, damage, explosive, color, symbol);
     }
 
     private void handleChangeName(Player player, String newName) {
         if (newName == null || newName.trim().isEmpty()) return;
-        String oldName = player.getName();
-        player.setName("PENDING_NAME_CHANGE_" + UUID.randomUUID()); // Liberar su nombre actual
+        player.setName("PENDING_NAME_CHANGE_" + player.getId()); // Liberar su nombre actual
         String uniqueName = getUniqueName(newName.trim());
         player.setName(uniqueName);
-        pendingEvents.add("[#58a6ff]Agent " + oldName + " re-identified as " + uniqueName);
+        emit(new GameEvent(EventCode.RENAMED, player.getId(), uniqueName));
     }
 
-    private void damagePlayer(Player hitPlayer, UUID shooterId, double damage) {
-        pendingEffects.add(new VisualEffect("HIT", hitPlayer.getPosition().x(), hitPlayer.getPosition().y(), hitPlayer.getColor()));
-        pendingEffects.add(new VisualEffect("TEXT", hitPlayer.getPosition().x(), hitPlayer.getPosition().y(), "#f85149", String.format("-%.1f", damage)));
+    private void damagePlayer(Player hitPlayer, int shooterId, double damage) {
+        emit(new VisualEffect("HIT", hitPlayer.getPosition().x(), hitPlayer.getPosition().y(), hitPlayer.getColor()));
+        emit(new VisualEffect("TEXT", hitPlayer.getPosition().x(), hitPlayer.getPosition().y(), "#f85149", String.format("-%.1f", damage)));
         addVibration(hitPlayer.getId(), 0.3);
         double remainingDamage = damage;
         if (hitPlayer.getShield() > 0) {
@@ -825,21 +936,21 @@ public class GameEngineImpl implements GameEngine {
         }
 
         if (hitPlayer.getHp() <= 0) {
-            pendingEffects.add(new VisualEffect("EXPLOSION", hitPlayer.getPosition().x(), hitPlayer.getPosition().y(), hitPlayer.getColor(), hitPlayer.getSize()));
+            emit(new VisualEffect("EXPLOSION", hitPlayer.getPosition().x(), hitPlayer.getPosition().y(), hitPlayer.getColor(), hitPlayer.getSize()));
             respawnPlayer(hitPlayer);
             Player shooter = players.get(shooterId);
             if (shooter != null) {
                 addExperience(shooter, 100);
-                pendingEvents.add("[" + shooter.getColor() + "]Agent " + shooter.getName() + " [#f85149]terminated [" + hitPlayer.getColor() + "]Agent " + hitPlayer.getName());
+                emit(new GameEvent(EventCode.KILL, shooter.getId(), hitPlayer.getId()));
             } else {
-                pendingEvents.add("[#f85149]Agent " + hitPlayer.getName() + " was decommissioned.");
+                emit(new GameEvent(EventCode.DECOMMISSIONED, hitPlayer.getId()));
             }
         }
     }
 
-    private void damageSentinel(Sentinel sent, UUID shooterId, double damage) {
-        pendingEffects.add(new VisualEffect("HIT", sent.getPosition().x(), sent.getPosition().y(), sent.getColor()));
-        pendingEffects.add(new VisualEffect("TEXT", sent.getPosition().x(), sent.getPosition().y(), "#d29922", String.format("-%.1f", damage)));
+    private void damageSentinel(Sentinel sent, int shooterId, double damage) {
+        emit(new VisualEffect("HIT", sent.getPosition().x(), sent.getPosition().y(), sent.getColor()));
+        emit(new VisualEffect("TEXT", sent.getPosition().x(), sent.getPosition().y(), "#d29922", String.format("-%.1f", damage)));
         
         double remainingDamage = damage;
         if (sent.getShield() > 0) {
@@ -853,21 +964,23 @@ public class GameEngineImpl implements GameEngine {
         }
 
         if (sent.getHp() <= 0) {
-            sentinels.remove(sent.getId());
-            pendingEffects.add(new VisualEffect("EXPLOSION", sent.getPosition().x(), sent.getPosition().y(), sent.getColor(), sent.getSize()));
-            
+            if (sentinels.remove(sent.getId()) != null) handles.release(sent.getId());
             boolean isNull = "NULL".equals(sent.getName());
             boolean isFireWall = "FIRE_WALL".equals(sent.getName());
+            VisualEffect explosion = new VisualEffect("EXPLOSION", sent.getPosition().x(), sent.getPosition().y(), sent.getColor(), sent.getSize());
+            // La caída de un jefe se ve en todo el mapa, igual que su aviso en el radar
+            emit(isNull || isFireWall ? explosion.asGlobal() : explosion);
+
             if (isFireWall) {
-                pendingEvents.add("[#f85149]FIRE_WALL breached! System access granted.");
+                emit(new GameEvent(EventCode.FIREWALL_BREACHED));
                 for (int i = 0; i < 20; i++) spawnOreBatch(sent.getPosition(), Ore.OreType.GOLD, 1);
             } else if (isNull) {
-                pendingEvents.add("[#ff4500]NULL neutralized!");
+                emit(new GameEvent(EventCode.NULL_NEUTRALIZED));
                 // Drop many ores
                 for (int i = 0; i < 5; i++) spawnOreBatch(sent.getPosition(), Ore.OreType.GOLD, 1);
                 for (int i = 0; i < 10; i++) spawnOreBatch(sent.getPosition(), Ore.OreType.SILVER, 1);
             } else {
-                pendingEvents.add("[#f85149]Sentinel decommissioned.");
+                emit(new GameEvent(EventCode.SENTINEL_DOWN));
             }
 
             Player shooter = players.get(shooterId);
@@ -880,19 +993,21 @@ public class GameEngineImpl implements GameEngine {
     }
 
     private void addExperience(Player player, int amount) {
+        // El que gana la experiencia (p. ej. el tirador) puede estar en otra franja
+        if (defer(() -> addExperience(player, amount))) return;
         player.setExp(player.getExp() + amount);
-        pendingEffects.add(new VisualEffect("TEXT", player.getPosition().x(), player.getPosition().y(), "#58a6ff", "+" + amount + " XP"));
+        emit(new VisualEffect("TEXT", player.getPosition().x(), player.getPosition().y(), "#58a6ff", "+" + amount + " XP"));
         int expNeeded = Math.max(1, player.getLevel()) * 500;
         if (player.getExp() >= expNeeded) {
             player.setExp(player.getExp() - expNeeded);
             player.setLevel(player.getLevel() + 1);
 
-            pendingEvents.add("[" + player.getColor() + "]Agent " + player.getName() + " [#58a6ff]leveled up to Lvl " + player.getLevel() + "!");
+            emit(new GameEvent(EventCode.LEVEL_UP, player.getId(), player.getLevel()));
         }
     }
 
-    private void handleExplosion(Position pos, UUID shooterId, double damage, String color) {
-        pendingEffects.add(new VisualEffect("EXPLOSION", pos.x(), pos.y(), color, 2));
+    private void handleExplosion(Position pos, int shooterId, double damage, String color) {
+        emit(new VisualEffect("EXPLOSION", pos.x(), pos.y(), color, 2));
         
         // Vibración para jugadores cercanos
         for (Player p : players.values()) {
@@ -914,7 +1029,7 @@ public class GameEngineImpl implements GameEngine {
         List<GameObject> nearby = getNearbyObjects(pos.x(), pos.y(), explosionRadius);
         for (GameObject obj : nearby) {
             // Ignorar al propio dueño del proyectil para evitar suicidios por explosión
-            if (obj.getId().equals(shooterId)) continue;
+            if (obj.getId() == shooterId) continue;
             
             double halfSize = obj.getSize() / 2.0;
             // Distancia del centro de la explosión al punto más cercano de la caja de colisión del objeto
@@ -932,7 +1047,7 @@ public class GameEngineImpl implements GameEngine {
                     damageSentinel(s, shooterId, damage);
                 } else if (obj instanceof Meteorite met) {
                     met.setHealth(met.getHealth() - damage);
-                    pendingEffects.add(new VisualEffect("TEXT", met.getPosition().x(), met.getPosition().y(), "#c9d1d9", String.format("-%.1f", damage)));
+                    emit(new VisualEffect("TEXT", met.getPosition().x(), met.getPosition().y(), "#c9d1d9", String.format("-%.1f", damage)));
                     if (met.getHealth() <= 0) {
                         destroyMeteorite(met, null);
                     }
@@ -942,10 +1057,11 @@ public class GameEngineImpl implements GameEngine {
     }
 
     private void destroyMeteorite(Meteorite met, Player collector) {
-        if (worldObjects.remove(met.getId()) != null) {
+        if (meteorites.remove(met.getId())) {
+            handles.release(met.getId());
             staticObjectsChanged = true;
         }
-        pendingEffects.add(new VisualEffect("DEBRIS", met.getPosition().x(), met.getPosition().y(), met.getColor(), met.getSize()));
+        emit(new VisualEffect("DEBRIS", met.getPosition().x(), met.getPosition().y(), met.getColor(), met.getSize()));
         if (met.isHasResources()) {
             if (collector != null) {
                 // Auto-recolección para el láser
@@ -957,25 +1073,144 @@ public class GameEngineImpl implements GameEngine {
                 
                 addExperience(collector, type.value / 2);
                 
-                pendingEffects.add(new VisualEffect("TEXT", met.getPosition().x(), met.getPosition().y(), oreColor, "+1 " + type.name()));
+                emit(new VisualEffect("TEXT", met.getPosition().x(), met.getPosition().y(), oreColor, "+1 " + type.name()));
                 // Efecto de recolección física (partículas que viajan hacia el jugador)
-                pendingEffects.add(new VisualEffect("COLLECT", met.getPosition().x(), met.getPosition().y(), collector.getPosition().x(), collector.getPosition().y(), "#ff00ff"));
+                emit(new VisualEffect("COLLECT", met.getPosition().x(), met.getPosition().y(), collector.getPosition().x(), collector.getPosition().y(), "#ff00ff"));
             } else {
-                Ore ore = Ore.builder()
-                        .position(met.getPosition())
-                        .type(met.getResourceType())
-                        .build();
-                worldObjects.put(ore.getId(), ore);
-                staticObjectsChanged = true;
+                spawnOre(met.getPosition(), met.getResourceType());
+            }
+        }
+    }
+
+    private void spawnOre(Position pos, Ore.OreType type) {
+        // Los handles se asignan en el hilo del tick para que los ids no dependan del orden de los hilos
+        if (defer(() -> spawnOre(pos, type))) return;
+        Ore ore = Ore.builder()
+                .id(handles.allocate())
+                .position(pos)
+                .type(type)
+                .build();
+        ores.add(ore);
+        staticObjectsChanged = true;
+    }
+
+    private void ensureProjectileIntentCapacity(int count) {
+        if (projectileOutcomes.length < count) {
+            int capacity = Math.max(count, projectileOutcomes.length * 2);
+            projectileOutcomes = new byte[capacity];
+            projectileHits = new GameObject[capacity];
+            projectileHitX = new double[capacity];
+            projectileHitY = new double[capacity];
+        }
+    }
+
+    // Fase paralela: decide qué le pasa al proyectil del slot i sin modificar nada fuera de su intención
+    private void checkProjectile(int i) {
+        projectileHits[i] = null;
+        if (projectiles.expired(i)) {
+            projectileOutcomes[i] = PROJECTILE_EXPIRED;
+            return;
+        }
+        double nextX = projectiles.nextX(i);
+        double nextY = projectiles.nextY(i);
+        if (!isValidPosition(nextX, nextY, 1) || isOccupiedBySolid(nextX, nextY, 1)) {
+            projectileOutcomes[i] = PROJECTILE_BLOCKED;
+            return;
+        }
+
+        // Check collision with players and Sentinels using spatial grid
+        // If speed is high, check an intermediate point to avoid tunneling
+        double x = projectiles.x(i);
+        double y = projectiles.y(i);
+        int ownerId = projectiles.owner(i);
+        double stepVx = projectiles.stepVx(i, stepScale);
+        double stepVy = projectiles.stepVy(i, stepScale);
+        int steps = projectiles.stepLength(i, stepScale) > 0.4 ? 2 : 1;
+
+        for (int step = 1; step <= steps; step++) {
+            double stepFactor = (double) step / steps;
+            double checkX = x + stepVx * stepFactor;
+            double checkY = y + stepVy * stepFactor;
+
+            GameObject hitObj = findFirstInDynamicGrid(checkX, checkY, 2.0, EntityKind.mask(EntityKind.PLAYER, EntityKind.SENTINEL), o -> {
+                if (o.getId() == ownerId) return false;
+                if (o instanceof Player p && p.getRespawnTimer() != 0) return false;
+
+                // Detección AABB para mayor precisión en esquinas
+                double dx = Math.abs(o.getPosition().x() - checkX);
+                double dy = Math.abs(o.getPosition().y() - checkY);
+                // El proyectil se considera radio 0.4 para colisiones dinámicas (un poco más pequeño que celdas)
+                double collisionHalfSize = (o.getSize() / 2.0) + 0.4;
+                return dx < collisionHalfSize && dy < collisionHalfSize;
+            });
+
+            if (hitObj != null) {
+                projectileOutcomes[i] = PROJECTILE_HIT;
+                projectileHits[i] = hitObj;
+                projectileHitX[i] = checkX;
+                projectileHitY[i] = checkY;
+                return;
             }
         }
+        projectileOutcomes[i] = PROJECTILE_FLYING;
     }
 
-    private void checkProjectileMeteoriteCollision(Position pos, List<UUID> toRemoveList, double damage) {
+    // Aplica la intención del slot i. Devuelve true si el proyectil debe eliminarse
+    private boolean commitProjectile(int i) {
+        double x = projectiles.x(i);
+        double y = projectiles.y(i);
+        int ownerId = projectiles.owner(i);
+        double damage = projectiles.damage(i);
+
+        switch (projectileOutcomes[i]) {
+            case PROJECTILE_EXPIRED -> {
+                if (projectiles.explosive(i)) {
+                    handleExplosion(new Position(x, y), ownerId, damage, projectiles.color(i));
+                }
+                return true;
+            }
+            case PROJECTILE_BLOCKED -> {
+                if (projectiles.explosive(i)) {
+                    handleExplosion(new Position(x, y), ownerId, damage, projectiles.color(i));
+                } else {
+                    emit(new VisualEffect("PROJECTILE_DEATH", x, y, projectiles.color(i)));
+                }
+                checkProjectileMeteoriteCollision(new Position(projectiles.nextX(i), projectiles.nextY(i)), damage);
+                return true;
+            }
+            case PROJECTILE_HIT -> {
+                GameObject hitObj = projectileHits[i];
+                projectileHits[i] = null;
+                // El objetivo pudo morir por un impacto anterior en este mismo commit: el proyectil sigue de largo
+                boolean stillTarget = hitObj instanceof Player p ? p.getRespawnTimer() == 0 && players.containsKey(p.getId())
+                        : sentinels.containsKey(hitObj.getId());
+                if (stillTarget) {
+                    double hitX = projectileHitX[i];
+                    double hitY = projectileHitY[i];
+                    projectiles.moveTo(i, hitX, hitY);
+                    if (hitObj instanceof Player p) damagePlayer(p, ownerId, damage);
+                    else if (hitObj instanceof Sentinel s) damageSentinel(s, ownerId, damage);
+
+                    if (projectiles.explosive(i)) {
+                        handleExplosion(new Position(hitX, hitY), ownerId, damage, projectiles.color(i));
+                    } else {
+                        emit(new VisualEffect("PROJECTILE_DEATH", hitX, hitY, projectiles.color(i)));
+                    }
+                    return true;
+                }
+            }
+            default -> {
+            }
+        }
+        projectiles.commitMove(i);
+        return false;
+    }
+
+    private void checkProjectileMeteoriteCollision(Position pos, double damage) {
         // Usamos un radio de búsqueda generoso para encontrar meteoritos grandes
-        GameObject hit = findFirstInGrid(pos.x(), pos.y(), 10.0, o -> {
-            if (!(o instanceof Meteorite met)) return false;
-            
+        GameObject hit = findFirstInGrid(pos.x(), pos.y(), 10.0, EntityKind.METEORITE.bit(), o -> {
+            Meteorite met = (Meteorite) o;
+
             // Detección AABB consistente con isOccupiedBySolid
             double dx = Math.abs(met.getPosition().x() - pos.x());
             double dy = Math.abs(met.getPosition().y() - pos.y());
@@ -990,69 +1225,117 @@ public class GameEngineImpl implements GameEngine {
             if (met.getHealth() <= 0) {
                 destroyMeteorite(met, null);
             } else {
-                pendingEffects.add(new VisualEffect("TEXT", met.getPosition().x(), met.getPosition().y(), "#c9d1d9", String.format("-%.1f", damage)));
-                pendingEffects.add(new VisualEffect("HIT", met.getPosition().x(), met.getPosition().y(), met.getColor()));
+                emit(new VisualEffect("TEXT", met.getPosition().x(), met.getPosition().y(), "#c9d1d9", String.format("-%.1f", damage)));
+                emit(new VisualEffect("HIT", met.getPosition().x(), met.getPosition().y(), met.getColor()));
             }
         }
     }
 
+    private static QuadTree.Rectangle worldBoundary() {
+        return new QuadTree.Rectangle(WIDTH/2.0, HEIGHT/2.0, WIDTH/2.0, HEIGHT/2.0);
+    }
+
+    private SpatialIndex newStaticIndex() {
+        return spatialIndexType.create(worldBoundary(), 20);
+    }
+
     private synchronized void updateStaticGrid() {
-        staticQuadTree.clear();
-        worldObjects.values().stream()
-                .filter(obj -> !(obj instanceof Ore))
-                .forEach(staticQuadTree::insert);
+        SpatialIndex index = newStaticIndex();
+        meteorites.forEach(index::insert);
+        dataNodes.forEach(index::insert);
+        wormholes.forEach(index::insert);
+        stations.forEach(index::insert);
+        staticIndex = index;
     }
 
-    private synchronized void updateSpatialGrid() {
-        dynamicQuadTree.clear();
-        sentinels.values().forEach(dynamicQuadTree::insert);
-        projectiles.values().forEach(dynamicQuadTree::insert);
-        players.values().stream()
-                .filter(p -> p.getRespawnTimer() == 0)
-                .forEach(dynamicQuadTree::insert);
-        
-        // Incluir Ores en el grid dinámico ya que ahora se mueven
-        worldObjects.values().stream()
-                .filter(obj -> obj instanceof Ore)
-                .forEach(dynamicQuadTree::insert);
+    private void updateSpatialGrid() {
+        indexLock.writeLock().lock();
+        try {
+            // Índice incremental: solo se reubican los objetos que salieron de su hoja,
+            // y los que ya no se actualizan (destruidos, muertos) se quitan en el sweep
+            sentinels.values().forEach(dynamicIndex::update);
+            players.values().stream()
+                    .filter(p -> p.getRespawnTimer() == 0)
+                    .forEach(dynamicIndex::update);
+
+            // Incluir Ores en el grid dinámico ya que ahora se mueven
+            for (int i = 0; i < ores.size(); i++) {
+                dynamicIndex.update(ores.get(i));
+            }
+            dynamicIndex.sweep();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
     }
 
-    private synchronized void queryGrid(double x, double y, double radius, java.util.function.Consumer<GameObject> action) {
+    private void queryGrid(double x, double y, double radius, int kinds, java.util.function.Consumer<GameObject> action) {
         // Expandimos el rango de búsqueda para incluir objetos grandes cuyo centro esté fuera del radio
         double range = radius + 4.0;
-        dynamicQuadTree.query(x, y, range, range, action);
-        staticQuadTree.query(x, y, range, range, action);
+        if ((kinds & DYNAMIC_KINDS) != 0) {
+            indexLock.readLock().lock();
+            try {
+                dynamicIndex.query(x, y, range, range, kinds, action);
+            } finally {
+                indexLock.readLock().unlock();
+            }
+        }
+        if ((kinds & STATIC_KINDS) != 0) {
+            staticIndex.query(x, y, range, range, kinds, action);
+        }
     }
 
-    private synchronized List<GameObject> getNearbyObjects(double x, double y, double radius) {
+    private List<GameObject> getNearbyObjects(double x, double y, double radius) {
         List<GameObject> nearby = new ArrayList<>();
-        double range = radius + 4.0;
-        dynamicQuadTree.query(x, y, range, range, nearby::add);
-        staticQuadTree.query(x, y, range, range, nearby::add);
+        queryGrid(x, y, radius, EntityKind.ALL, nearby::add);
         return nearby;
     }
 
-    private synchronized List<GameObject> getNearbyDynamicObjects(double x, double y, double radius) {
+    private List<GameObject> getNearbyDynamicObjects(double x, double y, double radius) {
         List<GameObject> nearby = new ArrayList<>();
         double range = radius + 4.0;
-        dynamicQuadTree.query(x, y, range, range, nearby::add);
+        indexLock.readLock().lock();
+        try {
+            dynamicIndex.query(x, y, range, range, nearby::add);
+        } finally {
+            indexLock.readLock().unlock();
+        }
         return nearby;
     }
 
-    private synchronized GameObject findFirstInGrid(double x, double y, double radius, java.util.function.Predicate<GameObject> filter) {
+    private GameObject findFirstInGrid(double x, double y, double radius, int kinds, java.util.function.Predicate<GameObject> filter) {
+        if ((kinds & DYNAMIC_KINDS) != 0) {
+            GameObject found = findFirstInDynamicGrid(x, y, radius, kinds, filter);
+            if (found != null) return found;
+        }
+        if ((kinds & STATIC_KINDS) == 0) return null;
         double range = radius + 4.0;
-        GameObject found = dynamicQuadTree.findFirst(x, y, range, range, filter);
-        if (found != null) return found;
-        return staticQuadTree.findFirst(x, y, range, range, filter);
+        // El índice estático se reemplaza entero, nunca se modifica: no requiere lock
+        return staticIndex.findFirst(x, y, range, range, kinds, filter);
     }
 
-    private synchronized GameObject findFirstInDynamicGrid(double x, double y, double radius, java.util.function.Predicate<GameObject> filter) {
+    private GameObject findFirstInDynamicGrid(double x, double y, double radius, int kinds, java.util.function.Predicate<GameObject> filter) {
         double range = radius + 4.0;
-        return dynamicQuadTree.findFirst(x, y, range, range, filter);
+        indexLock.readLock().lock();
+        try {
+            return dynamicIndex.findFirst(x, y, range, range, kinds, filter);
+        } finally {
+            indexLock.readLock().unlock();
+        }
     }
 
     @Override
     public void update() {
+        synchronized (lifecycle) {
+            if (closed) return;
+            tick();
+        }
+    }
+
+    private void tick() {
+        profile.begin();
+        drainInputs();
+        profile.lap(TickPhase.INPUT);
+
         tickCount++;
         long now = System.currentTimeMillis();
         updateSpatialGrid();
@@ -1060,15 +1343,17 @@ public class GameEngineImpl implements GameEngine {
             updateStaticGrid();
             staticObjectsChanged = false;
         }
+        profile.lap(TickPhase.SPATIAL_INDEX);
 
-        if (tickCount % 30 == 0) {
+        if (tickCount % ticks(30) == 0) {
             manageSentinels();
             
             // Gestionar colapso de Wormholes
-            boolean removed = worldObjects.values().removeIf(obj -> {
-                if (obj instanceof Wormhole wh && wh.getSpawnTime() < 0) {
+            boolean removed = wormholes.removeIf(wh -> {
+                if (wh.getSpawnTime() < 0) {
                     long collapseStart = -wh.getSpawnTime();
                     if (System.currentTimeMillis() - collapseStart > 2000) {
+                        handles.release(wh.getId());
                         return true;
                     }
                 }
@@ -1112,68 +1397,41 @@ public class GameEngineImpl implements GameEngine {
             }
         });
 
-        // Aplicar entradas activas a los jugadores vivos
-        for (Map.Entry<UUID, java.util.Set<String>> entry : activeInputs.entrySet()) {
-            Player p = players.get(entry.getKey());
-            if (p != null && p.getRespawnTimer() == 0) {
-                for (String dir : entry.getValue()) {
-                    applyAcceleration(p, dir);
-                }
+        // Aplicar entradas activas (y las pulsadas en este tick) a los jugadores vivos
+        for (Player p : players.values()) {
+            if (p.getRespawnTimer() != 0) continue;
+            int mask = activeInputs.getOrDefault(p.getId(), 0) | tappedInputs.getOrDefault(p.getId(), 0);
+            for (int dir : InputCommand.DIRECTIONS) {
+                if ((mask & dir) != 0) applyAcceleration(p, dir);
             }
         }
 
-        // IA de Sentinelas (Optimización: solo actualizar si hay jugadores cerca o es un jefe)
-        List<java.util.concurrent.CompletableFuture<Void>> sentinelFutures = new ArrayList<>();
-        for (Sentinel sent : sentinels.values()) {
-            sentinelFutures.add(java.util.concurrent.CompletableFuture.runAsync(() -> {
-                boolean isBoss = "NULL".equals(sent.getName()) || "FIRE_WALL".equals(sent.getName());
-                boolean hasPlayerNearby = isBoss || findFirstInDynamicGrid(sent.getPosition().x(), sent.getPosition().y(), 100, o -> o instanceof Player) != null;
-
-                if (!hasPlayerNearby) return;
-
-                // Movimiento aleatorio suave
-                if (random.nextInt(60) == 0) {
-                    double speed = "FIRE_WALL".equals(sent.getName()) ? 0.01 : 0.05;
-                    sent.setVx((random.nextDouble() - 0.5) * speed);
-                    sent.setVy((random.nextDouble() - 0.5) * speed);
-                }
-                
-                Position nextSentPos = sent.getPosition().move(sent.getVx(), sent.getVy());
-                if (isValidPosition(nextSentPos, sent.getSize()) && !isOccupiedBySolid(nextSentPos, sent.getSize())) {
-                    sent.setPosition(nextSentPos);
-                } else {
-                    sent.setVx(-sent.getVx());
-                    sent.setVy(-sent.getVy());
-                }
-
-                // Disparar si hay jugadores cerca
-                boolean isNull = "NULL".equals(sent.getName());
-                boolean isFireWall = "FIRE_WALL".equals(sent.getName());
-                double detectionRange = isFireWall ? 40 : (isNull ? 25 : 8);
+        profile.lap(TickPhase.WORLD);
 
-                GameObject targetObj = findFirstInDynamicGrid(sent.getPosition().x(), sent.getPosition().y(), detectionRange, o -> {
-                    if (!(o instanceof Player p) || p.getRespawnTimer() != 0) return false;
-                    double distSq = Math.pow(p.getPosition().x() - sent.getPosition().x(), 2) + 
-                                    Math.pow(p.getPosition().y() - sent.getPosition().y(), 2);
-                    return distSq < detectionRange * detectionRange;
-                });
-
-                if (targetObj instanceof Player target) {
-                    Weapon w = sent.getWeapon();
-                    if (now - sent.getLastShotTime() > w.getFireRate()) {
-                        sent.setLastShotTime(now);
-                        fireWeapon(sent.getId(), sent.getPosition(), sent.getColor(), w, target.getPosition().x(), target.getPosition().y());
-                    }
-                }
-            }, virtualExecutor));
+        // IA de Sentinelas (Optimización: solo actualizar si hay jugadores cerca o es un jefe)
+        // En paralelo cada centinela se mueve y elige objetivo; los disparos se aplican después en orden
+        Sentinel[] sentinelList = sentinels.values().toArray(new Sentinel[0]);
+        Player[] sentinelTargets = new Player[sentinelList.length];
+        regions.assign(sentinelList.length, i -> sentinelList[i].getPosition().x());
+        forEachOwned(i -> sentinelTargets[i] = updateSentinel(sentinelList[i]));
+        for (int i = 0; i < sentinelList.length; i++) {
+            Sentinel sent = sentinelList[i];
+            Player target = sentinelTargets[i];
+            if (target == null) continue;
+            Weapon w = sent.getWeapon();
+            if (now - sent.getLastShotTime() > w.getFireRate()) {
+                sent.setLastShotTime(now);
+                fireWeapon(sent.getId(), sent.getPosition(), sent.getColor(), w, target.getPosition().x(), target.getPosition().y());
+            }
         }
-        java.util.concurrent.CompletableFuture.allOf(sentinelFutures.toArray(new java.util.concurrent.CompletableFuture[0])).join();
+
+        profile.lap(TickPhase.SENTINELS);
 
         // Minería automática (Daño distribuido para mayor fluidez visual)
-        if (tickCount % 5 == 0) {
+        if (tickCount % ticks(5) == 0) {
             for (Player p : players.values()) {
                 if (p.getRespawnTimer() == 0 && p.isAutoMinerActive()) {
-                    GameObject nearestMet = findFirstInGrid(p.getPosition().x(), p.getPosition().y(), 6.0, o -> o instanceof Meteorite);
+                    GameObject nearestMet = findFirstInGrid(p.getPosition().x(), p.getPosition().y(), 6.0, EntityKind.METEORITE.bit(), o -> true);
                     if (nearestMet instanceof Meteorite met) {
                         double damage = 1.0 / 6.0; // Mismo daño por segundo (aprox)
                         met.setHealth(met.getHealth() - damage);
@@ -1181,192 +1439,264 @@ public class GameEngineImpl implements GameEngine {
                             destroyMeteorite(met, p);
                         } else {
                             // Efecto de impacto ocasional para no saturar
-                            if (tickCount % 15 == 0) {
-                                pendingEffects.add(new VisualEffect("HIT", met.getPosition().x(), met.getPosition().y(), "#ff00ff"));
+                            if (tickCount % ticks(15) == 0) {
+                                emit(new VisualEffect("HIT", met.getPosition().x(), met.getPosition().y(), "#ff00ff"));
                             }
                         }
                         // Efecto visual de láser de extracción
-                        pendingEffects.add(new VisualEffect("MINING_LASER", p.getPosition().x(), p.getPosition().y(), met.getPosition().x(), met.getPosition().y(), "#ff00ff"));
+                        emit(new VisualEffect("MINING_LASER", p.getPosition().x(), p.getPosition().y(), met.getPosition().x(), met.getPosition().y(), "#ff00ff"));
                     }
                 }
             }
         }
 
         // Recarga de escudos lenta
-        if (random.nextInt(300) < 1) { // ~cada 5 segundos a 60fps
+        if (random.nextInt(ticks(300)) < 1) { // ~cada 10 segundos
             for (Player p : players.values()) {
                 if (p.getRespawnTimer() == 0 && p.getShield() < p.getMaxShield()) {
                     p.setShield(p.getShield() + 1);
                 }
             }
         }
-        // Actualizar Proyectiles
-        List<UUID> toRemove = new java.util.concurrent.CopyOnWriteArrayList<>();
-        List<java.util.concurrent.CompletableFuture<Void>> projectileFutures = new ArrayList<>();
-        
-        for (Projectile proj : projectiles.values()) {
-            projectileFutures.add(java.util.concurrent.CompletableFuture.runAsync(() -> {
-                Position oldPos = proj.getPosition();
-                Position nextPos = oldPos.move(proj.getVx(), proj.getVy());
-                double speed = Math.sqrt(proj.getVx() * proj.getVx() + proj.getVy() * proj.getVy());
-                proj.setDistanceTraveled(proj.getDistanceTraveled() + speed);
-
-                boolean expired = proj.getDistanceTraveled() >= proj.getMaxRange();
-                if (!isValidPosition(nextPos, 1) || isOccupiedBySolid(nextPos, 1) || expired) {
-                    toRemove.add(proj.getId());
-                    if (proj.isExplosive()) {
-                        handleExplosion(proj.getPosition(), proj.getOwnerId(), proj.getDamage(), proj.getColor());
-                    } else if (!expired) {
-                        pendingEffects.add(new VisualEffect("PROJECTILE_DEATH", proj.getPosition().x(), proj.getPosition().y(), proj.getColor()));
-                    }
-                    if (!expired) {
-                        // Solo dañar meteorito si no expiró por rango
-                        checkProjectileMeteoriteCollision(nextPos, (List<UUID>)toRemove, proj.getDamage());
-                    }
-                } else {
-                    // Check collision with players and Sentinels using spatial grid
-                    // If speed is high, check an intermediate point to avoid tunneling
-                    boolean hit = false;
-                    int steps = speed > 0.4 ? 2 : 1;
-                    
-                    for (int i = 1; i <= steps; i++) {
-                        double stepFactor = (double) i / steps;
-                        double checkX = oldPos.x() + proj.getVx() * stepFactor;
-                        double checkY = oldPos.y() + proj.getVy() * stepFactor;
-                        
-                        GameObject hitObj = findFirstInDynamicGrid(checkX, checkY, 2.0, o -> {
-                            if (o instanceof Projectile || o instanceof Ore) return false;
-                            if (o.getId().equals(proj.getOwnerId())) return false;
-                            if (o instanceof Player p && p.getRespawnTimer() != 0) return false;
-
-                            // Detección AABB para mayor precisión en esquinas
-                            double dx = Math.abs(o.getPosition().x() - checkX);
-                            double dy = Math.abs(o.getPosition().y() - checkY);
-                            // El proyectil se considera radio 0.4 para colisiones dinámicas (un poco más pequeño que celdas)
-                            double collisionHalfSize = (o.getSize() / 2.0) + 0.4;
-                            return dx < collisionHalfSize && dy < collisionHalfSize;
-                        });
-
-                        if (hitObj != null) {
-                            proj.setPosition(new Position(checkX, checkY));
-                            if (hitObj instanceof Player p) damagePlayer(p, proj.getOwnerId(), proj.getDamage());
-                            else if (hitObj instanceof Sentinel s) damageSentinel(s, proj.getOwnerId(), proj.getDamage());
-                            
-                            if (proj.isExplosive()) {
-                                handleExplosion(proj.getPosition(), proj.getOwnerId(), proj.getDamage(), proj.getColor());
-                            } else {
-                                pendingEffects.add(new VisualEffect("PROJECTILE_DEATH", proj.getPosition().x(), proj.getPosition().y(), proj.getColor()));
-                            }
-                            toRemove.add(proj.getId());
-                            hit = true;
-                            break;
-                        }
-                    }
-                    
-                    if (!hit) {
-                        proj.setPosition(nextPos);
-                    }
-                }
-            }, virtualExecutor));
-        }
-        java.util.concurrent.CompletableFuture.allOf(projectileFutures.toArray(new java.util.concurrent.CompletableFuture[0])).join();
-        for (UUID id : toRemove) {
-            projectiles.remove(id);
+        profile.lap(TickPhase.AUTO_MINING);
+
+        // Actualizar Proyectiles: integración en lote, detección de colisiones por región
+        // y aplicación de daños, efectos y bajas (interiores en paralelo, zona de borde después)
+        projectiles.integrate(stepScale);
+        int projectileCount = projectiles.size();
+        ensureProjectileIntentCapacity(projectileCount);
+        regions.assign(projectileCount, projectiles::x);
+        forEachOwned(this::checkProjectile);
+        commitOwned(i -> {
+            if (commitProjectile(i)) projectileOutcomes[i] = PROJECTILE_REMOVED;
+        });
+        for (int i = 0; i < projectileCount; i++) {
+            if (projectileOutcomes[i] == PROJECTILE_REMOVED) {
+                projectiles.markForRemoval(i);
+            }
         }
+        projectiles.removeMarked();
+        profile.lap(TickPhase.PROJECTILES);
 
         // Actualizar Ores (Atracción magnética hacia jugadores cercanos)
-        for (GameObject obj : worldObjects.values()) {
-            if (obj instanceof Ore ore) {
-                // Rango de atracción: 1.5 unidades
-                Player nearbyPlayer = (Player) findFirstInDynamicGrid(ore.getPosition().x(), ore.getPosition().y(), 1.5, o -> o instanceof Player);
-                if (nearbyPlayer != null && nearbyPlayer.getRespawnTimer() == 0) {
-                    double dx = nearbyPlayer.getPosition().x() - ore.getPosition().x();
-                    double dy = nearbyPlayer.getPosition().y() - ore.getPosition().y();
-                    double dist = Math.sqrt(dx * dx + dy * dy);
-                    if (dist > 0.1) {
-                        // Velocidad de atracción ligeramente superior a la velocidad máxima del jugador (0.08)
-                        double attractionSpeed = 0.10;
-                        ore.setPosition(new Position(
-                            ore.getPosition().x() + (dx / dist) * attractionSpeed,
-                            ore.getPosition().y() + (dy / dist) * attractionSpeed
-                        ));
-                    }
+        for (int i = 0; i < ores.size(); i++) {
+            Ore ore = ores.get(i);
+            // Rango de atracción: 1.5 unidades
+            Player nearbyPlayer = (Player) findFirstInDynamicGrid(ore.getPosition().x(), ore.getPosition().y(), 1.5, EntityKind.PLAYER.bit(), o -> true);
+            if (nearbyPlayer != null && nearbyPlayer.getRespawnTimer() == 0) {
+                double dx = nearbyPlayer.getPosition().x() - ore.getPosition().x();
+                double dy = nearbyPlayer.getPosition().y() - ore.getPosition().y();
+                double dist = Math.sqrt(dx * dx + dy * dy);
+                if (dist > 0.1) {
+                    // Velocidad de atracción ligeramente superior a la velocidad máxima del jugador (0.08)
+                    double attractionSpeed = 0.10 * stepScale;
+                    ore.setPosition(new Position(
+                        ore.getPosition().x() + (dx / dist) * attractionSpeed,
+                        ore.getPosition().y() + (dy / dist) * attractionSpeed
+                    ));
                 }
             }
         }
 
-        // Actualizar Jugadores (Movimiento e Inercia)
-        List<java.util.concurrent.CompletableFuture<Void>> playerFutures = new ArrayList<>();
-        for (Player p : players.values()) {
-            playerFutures.add(java.util.concurrent.CompletableFuture.runAsync(() -> {
-                if (p.getRespawnTimer() != 0) return;
-                
-                double nextX = p.getPosition().x() + p.getVx();
-                double nextY = p.getPosition().y() + p.getVy();
-                double speed = Math.sqrt(p.getVx() * p.getVx() + p.getVy() * p.getVy());
-                boolean collision = false;
-                
-                // Colisiones con bordes
-                double r = p.getSize() / 2.0;
-                if (nextX < r) { nextX = r; p.setVx(0); collision = true; }
-                if (nextX >= WIDTH - r) { nextX = WIDTH - r; p.setVx(0); collision = true; }
-                if (nextY < r) { nextY = r; p.setVy(0); collision = true; }
-                if (nextY >= HEIGHT - r) { nextY = HEIGHT - r; p.setVy(0); collision = true; }
-                
-                // Probar movimiento en X
-                Position posWithX = new Position(nextX, p.getPosition().y());
-                if (!isOccupiedBySolid(posWithX, p.getSize())) {
-                    p.setPosition(posWithX);
-                } else {
-                    p.setVx(0);
-                    collision = true;
-                }
-                
-                // Probar movimiento en Y
-                Position posWithY = new Position(p.getPosition().x(), nextY);
-                if (!isOccupiedBySolid(posWithY, p.getSize())) {
-                    p.setPosition(posWithY);
-                } else {
-                    p.setVy(0);
-                    collision = true;
-                }
+        profile.lap(TickPhase.ORE_ATTRACTION);
+
+        // Actualizar Jugadores (Movimiento e Inercia): el movimiento de cada jugador por región,
+        // el daño por choque y las colisiones con objetos del mundo después, según la franja de la posición nueva
+        Player[] playerList = players.values().toArray(new Player[0]);
+        double[] impactSpeeds = new double[playerList.length];
+        regions.assign(playerList.length, i -> playerList[i].getPosition().x());
+        forEachOwned(i -> impactSpeeds[i] = movePlayer(playerList[i]));
+        regions.assign(playerList.length, i -> playerList[i].getPosition().x());
+        commitOwned(i -> {
+            Player p = playerList[i];
+            if (p.getRespawnTimer() != 0) return;
+            if (impactSpeeds[i] > 0) {
+                applyEnvironmentalDamage(p, impactSpeeds[i]);
+            }
+            checkCollisions(p, p.getPosition());
+        });
+        profile.lap(TickPhase.PLAYERS);
+    }
 
-                if (collision && speed > 0.05) {
-                    applyEnvironmentalDamage(p, speed);
-                }
-                
-                // Aplicar Fricción
-                p.setVx(p.getVx() * FRICTION);
-                p.setVy(p.getVy() * FRICTION);
-
-                // Re-aplicar límite de velocidad si el scanner está activo
-                if (p.isScannerActive()) {
-                    double currentMaxSpeed = MAX_SPEED / 2.0;
-                    double currentSpeed = Math.sqrt(p.getVx() * p.getVx() + p.getVy() * p.getVy());
-                    if (currentSpeed > currentMaxSpeed) {
-                        p.setVx((p.getVx() / currentSpeed) * currentMaxSpeed);
-                        p.setVy((p.getVy() / currentSpeed) * currentMaxSpeed);
-                    }
+    // Fase de intención sobre todas las entidades en orden de franja: los bloques del pool quedan contiguos en el mapa
+    // y comparten celdas del índice. El cuerpo solo lee estado compartido y escribe en su propio índice
+    private void forEachOwned(java.util.function.IntConsumer body) {
+        phases.forEach(regions.end(regions.regions() - 1), k -> body.accept(regions.at(k)));
+    }
+
+    // Fase de commit: las entidades interiores de cada franja en paralelo, luego las acciones diferidas
+    // en orden de franja y por último la zona de borde en secuencia. Con una sola franja todo es secuencial
+    private void commitOwned(java.util.function.IntConsumer body) {
+        if (regions.regions() == 1) {
+            for (int k = regions.start(0); k < regions.end(0); k++) {
+                body.accept(regions.at(k));
+            }
+            return;
+        }
+        phases.forEachTask(regions.regions(), r -> {
+            regionOutput.set(outputsByRegion.get(r));
+            try {
+                for (int k = regions.start(r); k < regions.split(r); k++) {
+                    body.accept(regions.at(k));
                 }
-                
-                if (Math.abs(p.getVx()) < 0.01) p.setVx(0);
-                if (Math.abs(p.getVy()) < 0.01) p.setVy(0);
-                
-                checkCollisions(p, p.getPosition());
-            }, virtualExecutor));
+            } finally {
+                regionOutput.remove();
+            }
+        });
+        for (RegionOutput output : outputsByRegion) {
+            pendingEvents.addAll(output.events);
+            pendingEffects.addAll(output.effects);
+            output.actions.forEach(Runnable::run);
+            output.clear();
+        }
+        for (int r = 0; r < regions.regions(); r++) {
+            for (int k = regions.split(r); k < regions.end(r); k++) {
+                body.accept(regions.at(k));
+            }
+        }
+    }
+
+    // Durante un commit por regiones encola la acción para después de la fase paralela; si no, devuelve false
+    private boolean defer(Runnable action) {
+        RegionOutput output = regionOutput.get();
+        if (output == null) return false;
+        output.actions.add(action);
+        return true;
+    }
+
+    // Eventos y efectos de las franjas quedan en su buffer: el orden de publicación no depende de los hilos
+    private void emit(GameEvent event) {
+        RegionOutput output = regionOutput.get();
+        if (output != null) {
+            output.events.add(event);
+        } else {
+            pendingEvents.add(event);
+        }
+    }
+
+    private void emit(VisualEffect effect) {
+        RegionOutput output = regionOutput.get();
+        if (output != null) {
+            output.effects.add(effect);
+        } else {
+            pendingEffects.add(effect);
+        }
+    }
+
+    // Lo que una franja produce durante el commit paralelo. Las acciones diferidas (experiencia, teletransporte,
+    // apariciones que usan el Random compartido o asignan handles) corren después, en orden de franja
+    private static final class RegionOutput {
+        final List<GameEvent> events = new ArrayList<>();
+        final List<VisualEffect> effects = new ArrayList<>();
+        final List<Runnable> actions = new ArrayList<>();
+
+        void clear() {
+            events.clear();
+            effects.clear();
+            actions.clear();
+        }
+    }
+
+    // Fase paralela: solo modifica al propio centinela. Devuelve el jugador al que dispararía, o null
+    private Player updateSentinel(Sentinel sent) {
+        boolean isBoss = "NULL".equals(sent.getName()) || "FIRE_WALL".equals(sent.getName());
+        boolean hasPlayerNearby = isBoss || findFirstInDynamicGrid(sent.getPosition().x(), sent.getPosition().y(), 100, EntityKind.PLAYER.bit(), o -> true) != null;
+
+        if (!hasPlayerNearby) return null;
+
+        // Movimiento aleatorio suave
+        java.util.concurrent.ThreadLocalRandom rnd = java.util.concurrent.ThreadLocalRandom.current();
+        if (rnd.nextInt(ticks(60)) == 0) {
+            double speed = "FIRE_WALL".equals(sent.getName()) ? 0.01 : 0.05;
+            sent.setVx((rnd.nextDouble() - 0.5) * speed);
+            sent.setVy((rnd.nextDouble() - 0.5) * speed);
+        }
+
+        Position nextSentPos = sent.getPosition().move(sent.getVx() * stepScale, sent.getVy() * stepScale);
+        if (isValidPosition(nextSentPos, sent.getSize()) && !isOccupiedBySolid(nextSentPos, sent.getSize())) {
+            sent.setPosition(nextSentPos);
+        } else {
+            sent.setVx(-sent.getVx());
+            sent.setVy(-sent.getVy());
+        }
+
+        // Disparar si hay jugadores cerca
+        boolean isNull = "NULL".equals(sent.getName());
+        boolean isFireWall = "FIRE_WALL".equals(sent.getName());
+        double detectionRange = isFireWall ? 40 : (isNull ? 25 : 8);
+
+        GameObject targetObj = findFirstInDynamicGrid(sent.getPosition().x(), sent.getPosition().y(), detectionRange, EntityKind.PLAYER.bit(), o -> {
+            if (!(o instanceof Player p) || p.getRespawnTimer() != 0) return false;
+            double distSq = Math.pow(p.getPosition().x() - sent.getPosition().x(), 2) +
+                            Math.pow(p.getPosition().y() - sent.getPosition().y(), 2);
+            return distSq < detectionRange * detectionRange;
+        });
+        return targetObj instanceof Player target ? target : null;
+    }
+
+    // Fase paralela: solo modifica al propio jugador. Devuelve la velocidad del choque contra bordes o meteoritos (0 si no chocó)
+    private double movePlayer(Player p) {
+        if (p.getRespawnTimer() != 0) return 0;
+
+        double nextX = p.getPosition().x() + p.getVx() * stepScale;
+        double nextY = p.getPosition().y() + p.getVy() * stepScale;
+        double speed = Math.sqrt(p.getVx() * p.getVx() + p.getVy() * p.getVy());
+        boolean collision = false;
+
+        // Colisiones con bordes
+        double r = p.getSize() / 2.0;
+        if (nextX < r) { nextX = r; p.setVx(0); collision = true; }
+        if (nextX >= WIDTH - r) { nextX = WIDTH - r; p.setVx(0); collision = true; }
+        if (nextY < r) { nextY = r; p.setVy(0); collision = true; }
+        if (nextY >= HEIGHT - r) { nextY = HEIGHT - r; p.setVy(0); collision = true; }
+
+        // Probar movimiento en X
+        Position posWithX = new Position(nextX, p.getPosition().y());
+        if (!isOccupiedBySolid(posWithX, p.getSize())) {
+            p.setPosition(posWithX);
+        } else {
+            p.setVx(0);
+            collision = true;
+        }
+
+        // Probar movimiento en Y
+        Position posWithY = new Position(p.getPosition().x(), nextY);
+        if (!isOccupiedBySolid(posWithY, p.getSize())) {
+            p.setPosition(posWithY);
+        } else {
+            p.setVy(0);
+            collision = true;
         }
-        java.util.concurrent.CompletableFuture.allOf(playerFutures.toArray(new java.util.concurrent.CompletableFuture[0])).join();
+
+        // Aplicar Fricción
+        p.setVx(p.getVx() * frictionPerStep);
+        p.setVy(p.getVy() * frictionPerStep);
+
+        // Re-aplicar límite de velocidad si el scanner está activo
+        if (p.isScannerActive()) {
+            double currentMaxSpeed = MAX_SPEED / 2.0;
+            double currentSpeed = Math.sqrt(p.getVx() * p.getVx() + p.getVy() * p.getVy());
+            if (currentSpeed > currentMaxSpeed) {
+                p.setVx((p.getVx() / currentSpeed) * currentMaxSpeed);
+                p.setVy((p.getVy() / currentSpeed) * currentMaxSpeed);
+            }
+        }
+
+        if (Math.abs(p.getVx()) < 0.01) p.setVx(0);
+        if (Math.abs(p.getVy()) < 0.01) p.setVy(0);
+
+        return collision && speed > 0.05 ? speed : 0;
     }
 
     private void applyEnvironmentalDamage(Player p, double speed) {
-        pendingEffects.add(new VisualEffect("HIT", p.getPosition().x(), p.getPosition().y(), p.getColor()));
+        emit(new VisualEffect("HIT", p.getPosition().x(), p.getPosition().y(), p.getColor()));
         
         // Daño base 1, aumenta si la velocidad es alta (hasta 3 si superara el límite o por inercia)
         double damage = 1.0;
         if (speed > 0.12) damage = 3.0;
         else if (speed > 0.08) damage = 2.0;
 
-        pendingEffects.add(new VisualEffect("TEXT", p.getPosition().x(), p.getPosition().y(), "#f85149", String.format("-%.1f", damage)));
+        emit(new VisualEffect("TEXT", p.getPosition().x(), p.getPosition().y(), "#f85149", String.format("-%.1f", damage)));
         
         double remainingDamage = damage;
         if (p.getShield() > 0) {
@@ -1380,9 +1710,9 @@ public class GameEngineImpl implements GameEngine {
         }
 
         if (p.getHp() <= 0) {
-            pendingEffects.add(new VisualEffect("EXPLOSION", p.getPosition().x(), p.getPosition().y(), p.getColor(), p.getSize()));
+            emit(new VisualEffect("EXPLOSION", p.getPosition().x(), p.getPosition().y(), p.getColor(), p.getSize()));
             respawnPlayer(p);
-            pendingEvents.add("[#f85149]Agent " + p.getName() + " structural failure due to impact.");
+            emit(new GameEvent(EventCode.IMPACT_FAILURE, p.getId()));
         }
     }
 
@@ -1415,6 +1745,7 @@ public class GameEngineImpl implements GameEngine {
     }
 
     private void spawnOreBatch(Position pos, Ore.OreType type, int count) {
+        if (defer(() -> spawnOreBatch(pos, type, count))) return;
         for (int i = 0; i < count; i++) {
             // Dispersión aleatoria alrededor del punto de muerte
             double ox = (random.nextDouble() - 0.5) * 1.5;
@@ -1423,37 +1754,35 @@ public class GameEngineImpl implements GameEngine {
             
             // Límites del mapa
             if (isValidPosition(dropPos, 1)) {
-                Ore ore = Ore.builder()
-                        .position(dropPos)
-                        .type(type)
-                        .build();
-                worldObjects.put(ore.getId(), ore);
-                staticObjectsChanged = true;
+                spawnOre(dropPos, type);
             }
         }
     }
 
     private void checkCollisions(Player player, Position pos) {
-        final UUID[] touchedWhId = {null};
-        queryGrid(pos.x(), pos.y(), 5.0, obj -> {
+        final int[] touchedWhId = {EntityHandles.NONE};
+        int kinds = EntityKind.mask(EntityKind.SENTINEL, EntityKind.DATA_NODE, EntityKind.ORE, EntityKind.WORMHOLE);
+        queryGrid(pos.x(), pos.y(), 5.0, kinds, obj -> {
             // Colisión con Sentinelas (Daño por contacto)
             if (obj instanceof Sentinel sent) {
                 double threshold = (player.getSize() + sent.getSize()) / 2.0;
                 if (Math.abs(obj.getPosition().x() - pos.x()) < threshold && Math.abs(obj.getPosition().y() - pos.y()) < threshold) {
                     // Aplicar daño tanto al jugador como a la sentinela
                     // Usamos un daño por tick bajo para contacto continuo (0.2 HP)
-                    damagePlayer(player, sent.getId(), 0.2);
-                    damageSentinel(sent, player.getId(), 0.1);
+                    damagePlayer(player, sent.getId(), 0.2 * stepScale);
+                    damageSentinel(sent, player.getId(), 0.1 * stepScale);
                 }
             } else if (obj instanceof DataNode && Math.abs(obj.getPosition().x() - pos.x()) < 0.8 && Math.abs(obj.getPosition().y() - pos.y()) < 0.8) {
-                if (worldObjects.remove(obj.getId()) != null) {
+                if (dataNodes.remove(obj.getId())) {
+                    handles.release(obj.getId());
                     staticObjectsChanged = true;
                     addExperience(player, 25);
-                    pendingEffects.add(new VisualEffect("COLLECT", obj.getPosition().x(), obj.getPosition().y(), obj.getColor()));
+                    emit(new VisualEffect("COLLECT", obj.getPosition().x(), obj.getPosition().y(), obj.getColor()));
                     spawnDataNode();
                 }
             } else if (obj instanceof Ore ore && Math.abs(obj.getPosition().x() - pos.x()) < 0.8 && Math.abs(obj.getPosition().y() - pos.y()) < 0.8) {
-                if (worldObjects.remove(obj.getId()) != null) {
+                if (ores.remove(obj.getId())) {
+                    handles.release(obj.getId());
                     staticObjectsChanged = true;
                     String oreColor = "#ffffff";
                     if (ore.getType() == Ore.OreType.COPPER) { player.setCopper(player.getCopper() + 1); oreColor = "#b87333"; }
@@ -1462,8 +1791,8 @@ public class GameEngineImpl implements GameEngine {
                     
                     addExperience(player, ore.getType().value / 2);
                     
-                    pendingEffects.add(new VisualEffect("TEXT", obj.getPosition().x(), obj.getPosition().y(), oreColor, "+1 " + ore.getType().name()));
-                    pendingEffects.add(new VisualEffect("COLLECT", obj.getPosition().x(), obj.getPosition().y(), obj.getColor()));
+                    emit(new VisualEffect("TEXT", obj.getPosition().x(), obj.getPosition().y(), oreColor, "+1 " + ore.getType().name()));
+                    emit(new VisualEffect("COLLECT", obj.getPosition().x(), obj.getPosition().y(), obj.getColor()));
                 }
             } else if (obj instanceof Wormhole wh) {
                 double threshold = (player.getSize() + wh.getSize()) / 2.0;
@@ -1476,20 +1805,20 @@ public class GameEngineImpl implements GameEngine {
         handleWormholeInteraction(player, touchedWhId[0]);
     }
 
-    private void handleWormholeInteraction(Player player, UUID whId) {
-        UUID playerId = player.getId();
-        if (whId != null) {
+    private void handleWormholeInteraction(Player player, int whId) {
+        int playerId = player.getId();
+        if (whId != EntityHandles.NONE) {
             long now = System.currentTimeMillis();
             long lastTele = lastTeleportTime.getOrDefault(playerId, 0L);
             
             if (now - lastTele > 10000) { // Cooldown 10s
-                UUID activeWhId = playerInWormhole.get(playerId);
+                Integer activeWhId = playerInWormhole.get(playerId);
                 
-                if (!whId.equals(activeWhId)) {
+                if (activeWhId == null || activeWhId != whId) {
                     // Nuevo contacto o cambio de portal
                     playerInWormhole.put(playerId, whId);
                     wormholeStartTime.put(playerId, now);
-                    addPrivateEvent(playerId, "[#00ff00]SYSTEM: Wormhole detected. Stabilizing connection (3s)...");
+                    addPrivateEvent(playerId, new GameEvent(EventCode.WORMHOLE_DETECTED));
                 } else {
                     // Contacto continuo
                     long startTime = wormholeStartTime.getOrDefault(playerId, now);
@@ -1497,9 +1826,9 @@ public class GameEngineImpl implements GameEngine {
                     
                     if (elapsed >= 3000) {
                         performTeleport(player, whId);
-                    } else if (tickCount % 20 == 0) { // Feedback aprox cada segundo
+                    } else if (tickCount % ticks(20) == 0) { // Feedback aprox cada segundo
                         int remaining = 3 - (int)(elapsed / 1000);
-                        addPrivateEvent(playerId, "[#00ff00]SYSTEM: Link stabilization in progress... " + remaining + "s");
+                        addPrivateEvent(playerId, new GameEvent(EventCode.WORMHOLE_STABILIZING, remaining));
                     }
                 }
             }
@@ -1510,11 +1839,13 @@ public class GameEngineImpl implements GameEngine {
         }
     }
 
-    private void performTeleport(Player player, UUID whId) {
-        Wormhole wh = (Wormhole) worldObjects.get(whId);
+    private void performTeleport(Player player, int whId) {
+        // Mueve al jugador lejos y marca el wormhole de destino, que puede estar en otra franja
+        if (defer(() -> performTeleport(player, whId))) return;
+        Wormhole wh = wormholes.byId(whId);
         if (wh == null) return;
         
-        Wormhole targetWh = (Wormhole) worldObjects.get(wh.getLinkedId());
+        Wormhole targetWh = wormholes.byId(wh.getLinkedId());
         if (targetWh == null) return;
 
         // Comprobar si el wormhole está colapsando
@@ -1542,9 +1873,9 @@ public class GameEngineImpl implements GameEngine {
         playerInWormhole.remove(player.getId());
         wormholeStartTime.remove(player.getId());
         
-        pendingEffects.add(new VisualEffect("TELEPORT", wh.getPosition().x(), wh.getPosition().y(), "#00ff00"));
-        pendingEffects.add(new VisualEffect("TELEPORT", targetWh.getPosition().x(), targetWh.getPosition().y(), "#00ff00"));
-        addPrivateEvent(player.getId(), "[#00ff00]SYSTEM: Quantum jump successful. Position recalibrated.");
+        emit(new VisualEffect("TELEPORT", wh.getPosition().x(), wh.getPosition().y(), "#00ff00"));
+        emit(new VisualEffect("TELEPORT", targetWh.getPosition().x(), targetWh.getPosition().y(), "#00ff00"));
+        addPrivateEvent(player.getId(), new GameEvent(EventCode.TELEPORTED));
         
         // 25% chance of destruction and respawn elsewhere
         if (random.nextDouble() < 0.25) {
@@ -1553,7 +1884,7 @@ public class GameEngineImpl implements GameEngine {
             wh.setSpawnTime(collapseTime);
             targetWh.setSpawnTime(collapseTime);
             
-            pendingEvents.add("[#3fb950]Wormhole stability lost. Collapse imminent...");
+            emit(new GameEvent(EventCode.WORMHOLE_COLLAPSE));
             
             // Programamos la creación de nuevos wormholes y la eliminación de estos para más tarde
             // (En el loop principal de update o mediante un temporizador, pero aquí lo haremos simple
@@ -1566,7 +1897,7 @@ public class GameEngineImpl implements GameEngine {
                 .filter(s -> !"NULL".equals(s.getName())) // Don't manage boss here
                 .toList();
         
-        int targetCount = players.size() * SENTINELS_PER_PLAYER;
+        int targetCount = players.size() * sentinelsPerPlayer;
         int currentCount = currentSentinels.size();
 
         if (currentCount < targetCount) {
@@ -1577,62 +1908,49 @@ public class GameEngineImpl implements GameEngine {
             for (int i = 0; i < currentCount - targetCount; i++) {
                 Sentinel toRemove = currentSentinels.get(i);
                 sentinels.remove(toRemove.getId());
-                pendingEffects.add(new VisualEffect("EXPLOSION", toRemove.getPosition().x(), toRemove.getPosition().y(), toRemove.getColor(), toRemove.getSize()));
+                handles.release(toRemove.getId());
+                emit(new VisualEffect("EXPLOSION", toRemove.getPosition().x(), toRemove.getPosition().y(), toRemove.getColor(), toRemove.getSize()));
             }
         }
     }
 
     private boolean isOccupiedBySolid(Position pos, int size) {
+        return isOccupiedBySolid(pos.x(), pos.y(), size);
+    }
+
+    private boolean isOccupiedBySolid(double x, double y, int size) {
         double halfSize = size / 2.0;
         // Aumentamos el rango de búsqueda para encontrar objetos grandes
-        GameObject found = findFirstInGrid(pos.x(), pos.y(), halfSize + 1.0, o -> {
-            if (o instanceof Meteorite) {
-                double oh = o.getSize() / 2.0;
-                return Math.abs(pos.x() - o.getPosition().x()) < (halfSize + oh) &&
-                       Math.abs(pos.y() - o.getPosition().y()) < (halfSize + oh);
-            }
-            return false;
+        GameObject found = findFirstInGrid(x, y, halfSize + 1.0, EntityKind.METEORITE.bit(), o -> {
+            double oh = o.getSize() / 2.0;
+            return Math.abs(x - o.getPosition().x()) < (halfSize + oh) &&
+                   Math.abs(y - o.getPosition().y()) < (halfSize + oh);
         });
         return found != null;
     }
 
     private boolean isValidPosition(Position pos, int size) {
-        double r = size / 2.0;
-        return pos.x() >= r && pos.x() < WIDTH - r && pos.y() >= r && pos.y() < HEIGHT - r;
+        return isValidPosition(pos.x(), pos.y(), size);
     }
 
-    @Override
-    public java.util.List<String> getPendingEvents() {
-        java.util.List<String> events = new ArrayList<>();
-        while (!pendingEvents.isEmpty()) {
-            events.add(pendingEvents.poll());
-        }
-        return events;
+    private boolean isValidPosition(double x, double y, int size) {
+        double r = size / 2.0;
+        return x >= r && x < WIDTH - r && y >= r && y < HEIGHT - r;
     }
 
-    @Override
-    public java.util.List<String> getPendingEvents(UUID playerId) {
-        java.util.List<String> events = new ArrayList<>();
-        java.util.Queue<String> queue = privateEvents.get(playerId);
-        if (queue != null) {
-            while (!queue.isEmpty()) {
-                events.add(queue.poll());
-            }
-        }
-        return events;
+    // Convierte una cadencia expresada en ticks de BASE_TICK_RATE a ticks de la frecuencia configurada
+    private int ticks(int baseTicks) {
+        return Math.max(1, (int) Math.round(baseTicks / stepScale));
     }
 
-    @Override
-    public java.util.List<VisualEffect> getPendingEffects() {
-        java.util.List<VisualEffect> effects = new ArrayList<>();
-        while (!pendingEffects.isEmpty()) {
-            effects.add(pendingEffects.poll());
-        }
-        return effects;
+    // Respuestas a comandos y tienda: poco frecuentes, viajan como texto con marcado
+    private void addPrivateEvent(int playerId, String text) {
+        addPrivateEvent(playerId, GameEvent.text(text));
     }
 
-    private void addPrivateEvent(UUID playerId, String event) {
-        java.util.Queue<String> queue = privateEvents.get(playerId);
+    private void addPrivateEvent(int playerId, GameEvent event) {
+        if (defer(() -> addPrivateEvent(playerId, event))) return;
+        java.util.Queue<GameEvent> queue = privateEvents.get(playerId);
         if (queue != null) {
             queue.add(event);
         }
@@ -1640,79 +1958,165 @@ public class GameEngineImpl implements GameEngine {
 
     @Override
     public GameState getCurrentState() {
-        List<GameObject> allObjects = new ArrayList<>();
-        allObjects.addAll(worldObjects.values());
+        List<GameObject> allObjects = new ArrayList<>(worldObjectCount() + players.size() + sentinels.size() + projectiles.size());
+        meteorites.addTo(allObjects);
+        ores.addTo(allObjects);
+        dataNodes.addTo(allObjects);
+        wormholes.addTo(allObjects);
+        stations.addTo(allObjects);
         allObjects.addAll(players.values());
         allObjects.addAll(sentinels.values());
-        allObjects.addAll(projectiles.values());
+        for (int i = 0; i < projectiles.size(); i++) {
+            allObjects.add(projectiles.toProjectile(i));
+        }
         return new GameState(allObjects, new ArrayList<>(), new ArrayList<>(), 0.0, null);
     }
 
     @Override
-    public GameState getCurrentState(UUID playerId) {
-        Player player = players.get(playerId);
-        if (player == null) return getCurrentState();
-
-        // Rango de visión para objetos detallados (Meteoritos, Ores, Proyectiles, etc.)
-        double viewRange = 40.0;
-        // Rango extendido para Nodos de Datos en el Radar (Puntos de interés)
-        // Reducido de 250 a 100 para optimizar el rendimiento (CPU y ancho de banda)
-        double nodeRadarRange = 100.0;
-
-        // Usamos un Set para evitar duplicados eficientemente y mantener el orden
-        java.util.Set<GameObject> resultSet = new java.util.LinkedHashSet<>();
-        
-        // 1. Cercanía inmediata (vista detallada de todo tipo de objetos)
-        resultSet.addAll(getNearbyObjects(player.getPosition().x(), player.getPosition().y(), viewRange));
-        
-        // 2. Unidades enemigas y aliados (Radar Global) y Agujeros de Gusano
-        // Se envían todos los jugadores y centinelas para que sean siempre visibles en el minimapa
-        players.values().stream()
+    public TickProfile getTickProfile() {
+        return profile;
+    }
+
+    @Override
+    public GameState getCurrentState(int playerId) {
+        // Vista sin consumir eventos ni efectos pendientes (esos viajan en el snapshot publicado)
+        return captureSnapshot(false).viewFor(playerId);
+    }
+
+    public void shutdown() {
+        synchronized (lifecycle) {
+            if (closed) return;
+            closed = true;
+            releaseHandles();
+        }
+        if (ownsPhases) phases.shutdown();
+    }
+
+    @Override
+    public int liveHandles() {
+        return handles.live();
+    }
+
+    // Devuelve los handles de todo lo que queda en el mundo; con el motor cerrado no vuelven a usarse
+    private void releaseHandles() {
+        players.keySet().forEach(handles::release);
+        sentinels.keySet().forEach(handles::release);
+        meteorites.forEach(m -> handles.release(m.getId()));
+        ores.forEach(o -> handles.release(o.getId()));
+        dataNodes.forEach(n -> handles.release(n.getId()));
+        wormholes.forEach(w -> handles.release(w.getId()));
+        stations.forEach(s -> handles.release(s.getId()));
+        projectiles.releaseAll();
+    }
+
+    // Ganchos para los benchmarks de src/jmh: carga sintética sin pasar por el cooldown de las armas
+    void setSentinelsPerPlayer(int sentinelsPerPlayer) {
+        this.sentinelsPerPlayer = sentinelsPerPlayer;
+    }
+
+    void topUpProjectiles(int target) {
+        List<Player> shooters = players.values().stream()
                 .filter(p -> p.getRespawnTimer() == 0)
-                .forEach(resultSet::add);
-        resultSet.addAll(sentinels.values());
-        
-        // Incluir todos los agujeros de gusano y estaciones en el radar
-        worldObjects.values().stream()
-                .filter(o -> o instanceof Wormhole || o instanceof SpaceStation)
-                .forEach(resultSet::add);
-
-        // 3. Nodos de Datos (Radar Extendido)
-        // Permitimos ver puntos de interés a mayor distancia para facilitar la navegación
-        List<GameObject> nodesNearby = new ArrayList<>();
-        staticQuadTree.query(new QuadTree.Rectangle(player.getPosition().x(), player.getPosition().y(), nodeRadarRange, nodeRadarRange), nodesNearby);
-        for (GameObject o : nodesNearby) {
-            if (o instanceof DataNode) {
-                resultSet.add(o);
+                .toList();
+        if (shooters.isEmpty()) return;
+        // Los disparos entran al store en el próximo integrate()
+        for (int missing = target - projectiles.size(); missing > 0; missing--) {
+            Player shooter = shooters.get(random.nextInt(shooters.size()));
+            Position pos = shooter.getPosition();
+            double angle = random.nextDouble() * Math.PI * 2;
+            fireWeapon(shooter.getId(), pos, shooter.getColor(), Weapon.basic(), pos.x() + Math.cos(angle), pos.y() + Math.sin(angle));
+        }
+    }
+
+    @Override
+    public WorldSnapshot snapshot() {
+        return captureSnapshot(true);
+    }
+
+    private synchronized WorldSnapshot captureSnapshot(boolean drain) {
+        boolean debug = false;
+        Map<Integer, Player> playerCopies = new java.util.LinkedHashMap<>();
+        for (Player p : players.values()) {
+            playerCopies.put(p.getId(), p.toBuilder().build());
+            debug |= p.isDebugMode();
+        }
+
+        List<Sentinel> sentinelCopies = new ArrayList<>(sentinels.size());
+        for (Sentinel s : sentinels.values()) {
+            sentinelCopies.add(s.toBuilder().build());
+        }
+
+        List<GameObject> dynamicCopies = new ArrayList<>(projectiles.size());
+        for (int i = 0; i < projectiles.size(); i++) {
+            dynamicCopies.add(projectiles.toProjectile(i));
+        }
+
+        // Meteoritos, nodos y estaciones no cambian los campos que se envían; se comparten sin copiar
+        ores.forEach(ore -> dynamicCopies.add(ore.toBuilder().build()));
+        List<GameObject> radarObjects = new ArrayList<>(wormholes.size() + stations.size());
+        wormholes.forEach(wh -> radarObjects.add(wh.toBuilder().build()));
+        stations.addTo(radarObjects);
+
+        List<QuadTree.Rectangle> dynamicBoundaries = null;
+        List<QuadTree.Rectangle> staticBoundaries = null;
+        if (debug) {
+            dynamicBoundaries = new ArrayList<>();
+            indexLock.readLock().lock();
+            try {
+                dynamicIndex.getAllBoundaries(dynamicBoundaries);
+            } finally {
+                indexLock.readLock().unlock();
             }
+            staticBoundaries = new ArrayList<>();
+            staticIndex.getAllBoundaries(staticBoundaries);
         }
 
-        // Siempre incluir al propio jugador
-        resultSet.add(player);
-        
-        List<GameObject> result = new ArrayList<>(resultSet);
-        
-        Double vibration = pendingVibrations.remove(playerId);
-        
-        java.util.Map<String, Object> debugData = null;
-        if (player.isDebugMode()) {
-            debugData = new java.util.HashMap<>();
-            List<QuadTree.Rectangle> dynamicBoundaries = new ArrayList<>();
-            dynamicQuadTree.getAllBoundaries(dynamicBoundaries);
-            debugData.put("dq", dynamicBoundaries);
-            
-            List<QuadTree.Rectangle> staticBoundaries = new ArrayList<>();
-            staticQuadTree.getAllBoundaries(staticBoundaries);
-            debugData.put("sq", staticBoundaries);
+        return WorldSnapshot.builder()
+                .tick(tickCount)
+                .players(playerCopies)
+                .sentinels(sentinelCopies)
+                .dynamicObjects(dynamicCopies)
+                .radarObjects(radarObjects)
+                .staticIndex(staticIndex)
+                .indexType(spatialIndexType)
+                .events(drain ? drain(pendingEvents) : List.of())
+                .privateEvents(drain ? drainPrivateEvents() : Map.of())
+                .effects(drain ? drain(pendingEffects) : List.of())
+                .vibrations(drain ? drainVibrations() : Map.of())
+                .worldObjectCount(worldObjectCount())
+                .projectileCount(projectiles.size())
+                .dynamicBoundaries(dynamicBoundaries)
+                .staticBoundaries(staticBoundaries)
+                .build();
+    }
 
-            debugData.put("tick", tickCount);
-            debugData.put("objs", result.size());
-            debugData.put("sent", sentinels.size());
-            debugData.put("proj", projectiles.size());
-            debugData.put("players", players.size());
-            debugData.put("world_objs", worldObjects.size());
+    private int worldObjectCount() {
+        return meteorites.size() + ores.size() + dataNodes.size() + wormholes.size() + stations.size();
+    }
+
+    private <T> List<T> drain(java.util.Queue<T> queue) {
+        List<T> items = new ArrayList<>();
+        T item;
+        while ((item = queue.poll()) != null) {
+            items.add(item);
         }
-        
-        return new GameState(result, new ArrayList<>(), new ArrayList<>(), vibration, debugData);
+        return items;
+    }
+
+    private Map<Integer, List<GameEvent>> drainPrivateEvents() {
+        Map<Integer, List<GameEvent>> events = new java.util.HashMap<>();
+        privateEvents.forEach((playerId, queue) -> {
+            if (!queue.isEmpty()) events.put(playerId, drain(queue));
+        });
+        return events;
+    }
+
+    private Map<Integer, Double> drainVibrations() {
+        Map<Integer, Double> vibrations = new java.util.HashMap<>();
+        for (int playerId : pendingVibrations.keySet()) {
+            Double amount = pendingVibrations.remove(playerId);
+            if (amount != null) vibrations.put(playerId, amount);
+        }
+        return vibrations;
     }
 }
@@ -0,0 +1,121 @@
+package uy.gub.bps.netrunner.domain.service;
+
+import uy.gub.bps.netrunner.domain.model.InputMessage;
+
+// Entrada de un jugador ya interpretada en el hilo de red, lista para encolarse hacia el tick.
+// value: máscara de direcciones (MOVE reemplaza las mantenidas, MOVE_START/MOVE_STOP del formato de texto agregan o
+// quitan), 1/0 en SCANNER. x e y: destino de SHOOT (NaN = hacia donde mira).
+// text: nombre, mensaje o artículo. receivedNanos: llegada al servidor, para medir la espera hasta el tick.
+// Es mutable para no asignar por mensaje: el decodificador reutiliza uno por hilo y la cola copia sus campos
+// a celdas preasignadas.
+public final class InputCommand {
+
+    public enum Kind { MOVE, MOVE_START, MOVE_STOP, SHOOT, CHANGE_NAME, CHANGE_COLOR, SCANNER, CHAT, BUY }
+
+    public static final int UP = 1, DOWN = 2, LEFT = 4, RIGHT = 8;
+    static final int[] DIRECTIONS = {UP, DOWN, LEFT, RIGHT};
+
+    private int playerId;
+    private Kind kind;
+    private int value;
+    private double x;
+    private double y;
+    private String text;
+    private long receivedNanos;
+
+    public InputCommand set(int playerId, Kind kind, int value, double x, double y, String text, long receivedNanos) {
+        this.playerId = playerId;
+        this.kind = kind;
+        this.value = value;
+        this.x = x;
+        this.y = y;
+        this.text = text;
+        this.receivedNanos = receivedNanos;
+        return this;
+    }
+
+    void copyFrom(InputCommand other) {
+        set(other.playerId, other.kind, other.value, other.x, other.y, other.text, other.receivedNanos);
+    }
+
+    // Formato de texto {t, d}; devuelve false si el mensaje no corresponde a ningún comando
+    boolean parse(int playerId, InputMessage input, long receivedNanos) {
+        if (input.getType() == null) return false;
+        String payload = input.getPayload();
+        switch (input.getType().toUpperCase()) {
+            case "MOVE_START", "MOVE_STOP" -> {
+                int direction = direction(payload);
+                if (direction == 0) return false;
+                Kind move = input.getType().equalsIgnoreCase("MOVE_START") ? Kind.MOVE_START : Kind.MOVE_STOP;
+                set(playerId, move, direction, 0, 0, null, receivedNanos);
+            }
+            case "SHOOT" -> {
+                double tx = Double.NaN;
+                double ty = Double.NaN;
+                if (payload != null && payload.contains(",")) {
+                    try {
+                        String[] parts = payload.split(",");
+                        tx = Double.parseDouble(parts[0]);
+                        ty = Double.parseDouble(parts[1]);
+                    } catch (Exception e) {
+                        tx = Double.NaN;
+                        ty = Double.NaN;
+                    }
+                }
+                set(playerId, Kind.SHOOT, 0, tx, ty, null, receivedNanos);
+            }
+            case "CHANGE_NAME" -> set(playerId, Kind.CHANGE_NAME, 0, 0, 0, payload, receivedNanos);
+            case "CHANGE_COLOR" -> set(playerId, Kind.CHANGE_COLOR, 0, 0, 0, null, receivedNanos);
+            case "SCANNER_STATE" -> set(playerId, Kind.SCANNER, Boolean.parseBoolean(payload) ? 1 : 0, 0, 0, null, receivedNanos);
+            case "CHAT" -> set(playerId, Kind.CHAT, 0, 0, 0, payload, receivedNanos);
+            case "BUY" -> set(playerId, Kind.BUY, 0, 0, 0, payload, receivedNanos);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int playerId() {
+        return playerId;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public int value() {
+        return value;
+    }
+
+    public double x() {
+        return x;
+    }
+
+    public double y() {
+        return y;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public long receivedNanos() {
+        return receivedNanos;
+    }
+
+    public boolean aimed() {
+        return !Double.isNaN(x) && !Double.isNaN(y);
+    }
+
+    private static int direction(String payload) {
+        if (payload == null) return 0;
+        return switch (payload.toUpperCase()) {
+            case "UP" -> UP;
+            case "DOWN" -> DOWN;
+            case "LEFT" -> LEFT;
+            case "RIGHT" -> RIGHT;
+            default -> 0;
+        };
+    }
+}
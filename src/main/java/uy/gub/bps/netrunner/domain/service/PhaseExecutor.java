@@ -0,0 +1,83 @@
+package uy.gub.bps.netrunner.domain.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// Ejecuta una fase del tick repartiendo el rango de índices en bloques sobre un pool work-stealing.
+// El cuerpo solo debe leer estado compartido y escribir en su propio índice; los efectos se aplican después en orden.
+class PhaseExecutor {
+    // Por debajo de este tamaño el costo de repartir supera al trabajo
+    private static final int MIN_CHUNK = 32;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+
+    PhaseExecutor(int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("game-phase-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    void forEach(int count, IntConsumer body) {
+        int parallelism = pool.getParallelism();
+        int chunk = Math.max(MIN_CHUNK, Math.ceilDiv(count, parallelism * CHUNKS_PER_THREAD));
+        if (count <= chunk || parallelism == 1) {
+            for (int i = 0; i < count; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        pool.invoke(new Chunk(0, count, chunk, body));
+    }
+
+    // Una tarea por índice, sin agrupar: para trabajos gruesos como las franjas de RegionPartition
+    void forEachTask(int count, IntConsumer body) {
+        if (count == 1 || pool.getParallelism() == 1) {
+            for (int i = 0; i < count; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        pool.invoke(new Chunk(0, count, 1, body));
+    }
+
+    int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static class Chunk extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final IntConsumer body;
+
+        Chunk(int from, int to, int chunk, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunk(from, mid, chunk, body), new Chunk(mid, to, chunk, body));
+        }
+    }
+}
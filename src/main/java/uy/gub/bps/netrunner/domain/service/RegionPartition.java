@@ -0,0 +1,94 @@
+package uy.gub.bps.netrunner.domain.service;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+// Partición del mundo en franjas verticales, una por hilo de las fases paralelas. Cada franja es dueña de las
+// entidades cuyo centro cae en ella. Las que están a menos de `halo` de una frontera interna forman la zona de borde:
+// sus efectos pueden alcanzar a la franja vecina, así que se confirman después y en secuencia.
+// Con el halo mayor que el alcance de cualquier interacción, dos entidades interiores de franjas distintas
+// nunca tocan la misma entidad y sus commits pueden correr en paralelo.
+final class RegionPartition {
+    private final int regions;
+    private final double stripWidth;
+    private final double halo;
+
+    // Última asignación: por franja, primero los índices interiores y después los de borde, cada grupo en orden creciente
+    private final int[] start;
+    private final int[] split;
+    // Contadores y cursores de la clasificación por conteo
+    private final int[] interior;
+    private final int[] border;
+    private int[] order = new int[64];
+    private int[] regionOf = new int[64];
+
+    RegionPartition(double width, double halo, int maxRegions) {
+        // Franjas de al menos cuatro halos de ancho para que el interior sea la mayor parte
+        this.regions = Math.max(1, Math.min(maxRegions, (int) (width / (4 * halo))));
+        this.stripWidth = width / regions;
+        this.halo = halo;
+        this.start = new int[regions + 1];
+        this.split = new int[regions];
+        this.interior = new int[regions];
+        this.border = new int[regions];
+    }
+
+    int regions() {
+        return regions;
+    }
+
+    // Agrupa los índices [0, count) por franja según la coordenada x de cada uno
+    void assign(int count, IntToDoubleFunction xOf) {
+        if (order.length < count) {
+            int capacity = Math.max(count, order.length * 2);
+            order = new int[capacity];
+            regionOf = new int[capacity];
+        }
+        Arrays.fill(interior, 0);
+        Arrays.fill(border, 0);
+        for (int i = 0; i < count; i++) {
+            double x = xOf.applyAsDouble(i);
+            int region = Math.clamp((long) Math.floor(x / stripWidth), 0, regions - 1);
+            // Distancia a la frontera interna más cercana (los bordes del mundo no cuentan)
+            double left = region > 0 ? x - region * stripWidth : Double.MAX_VALUE;
+            double right = region < regions - 1 ? (region + 1) * stripWidth - x : Double.MAX_VALUE;
+            boolean inHalo = Math.min(left, right) < halo;
+            regionOf[i] = inHalo ? -1 - region : region;
+            if (inHalo) border[region]++;
+            else interior[region]++;
+        }
+
+        // Los contadores pasan a ser los cursores de escritura de cada grupo
+        int offset = 0;
+        for (int r = 0; r < regions; r++) {
+            start[r] = offset;
+            split[r] = offset + interior[r];
+            offset = split[r] + border[r];
+            interior[r] = start[r];
+            border[r] = split[r];
+        }
+        start[regions] = offset;
+        for (int i = 0; i < count; i++) {
+            int region = regionOf[i];
+            if (region >= 0) order[interior[region]++] = i;
+            else order[border[-1 - region]++] = i;
+        }
+    }
+
+    int start(int region) {
+        return start[region];
+    }
+
+    // Fin de los índices interiores de la franja y comienzo de los de borde
+    int split(int region) {
+        return split[region];
+    }
+
+    int end(int region) {
+        return start[region + 1];
+    }
+
+    int at(int k) {
+        return order[k];
+    }
+}
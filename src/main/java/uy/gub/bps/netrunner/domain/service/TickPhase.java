@@ -0,0 +1,23 @@
+package uy.gub.bps.netrunner.domain.service;
+
+// Fases de GameEngine.update() en orden de ejecución; la etiqueta es la que se publica en las métricas
+public enum TickPhase {
+    INPUT("input"), // comandos de los jugadores recibidos desde el tick anterior
+    SPATIAL_INDEX("spatial_index"),
+    WORLD("world"), // centinelas gestionados, wormholes, jefes, respawns y entradas
+    SENTINELS("sentinels"),
+    AUTO_MINING("auto_mining"),
+    PROJECTILES("projectiles"),
+    ORE_ATTRACTION("ore_attraction"),
+    PLAYERS("players");
+
+    private final String tag;
+
+    TickPhase(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
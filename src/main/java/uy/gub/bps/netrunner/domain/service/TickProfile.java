@@ -0,0 +1,52 @@
+package uy.gub.bps.netrunner.domain.service;
+
+// Duración de cada fase del último tick. Lo escribe y lo lee el hilo de simulación, sin sincronización.
+public class TickProfile {
+    private final long[] nanos = new long[TickPhase.values().length];
+    private long mark;
+    // Comandos de entrada aplicados, la mayor espera entre su llegada y el tick, y los descartados por cola llena
+    private int inputCommands;
+    private long maxInputLatencyNanos;
+    private long droppedInputs;
+
+    void begin() {
+        java.util.Arrays.fill(nanos, 0);
+        inputCommands = 0;
+        maxInputLatencyNanos = 0;
+        droppedInputs = 0;
+        mark = System.nanoTime();
+    }
+
+    long mark() {
+        return mark;
+    }
+
+    void recordInputs(int commands, long maxLatencyNanos, long dropped) {
+        inputCommands = commands;
+        maxInputLatencyNanos = maxLatencyNanos;
+        droppedInputs = dropped;
+    }
+
+    // Cierra la fase: le asigna el tiempo transcurrido desde la marca anterior
+    void lap(TickPhase phase) {
+        long now = System.nanoTime();
+        nanos[phase.ordinal()] += now - mark;
+        mark = now;
+    }
+
+    public long getNanos(TickPhase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public int getInputCommands() {
+        return inputCommands;
+    }
+
+    public long getMaxInputLatencyNanos() {
+        return maxInputLatencyNanos;
+    }
+
+    public long getDroppedInputs() {
+        return droppedInputs;
+    }
+}
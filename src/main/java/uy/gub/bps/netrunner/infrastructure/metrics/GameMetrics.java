@@ -0,0 +1,259 @@
+package uy.gub.bps.netrunner.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.gub.bps.netrunner.domain.model.WorldSnapshot;
+import uy.gub.bps.netrunner.domain.service.TickPhase;
+import uy.gub.bps.netrunner.domain.service.TickProfile;
+import uy.gub.bps.netrunner.infrastructure.websocket.SessionOutbound;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Métricas del bucle de juego y de la red, publicadas en /actuator/prometheus.
+// Los tiempos de tick y de fase llevan histograma para poder alertar sobre el p99 contra el presupuesto del tick.
+@Component
+public class GameMetrics {
+
+    private final MeterRegistry registry;
+    private final Duration tickBudget;
+    private final Timer tickTimer;
+    private final Map<TickPhase, Timer> phaseTimers = new EnumMap<>(TickPhase.class);
+    private final Timer broadcastTimer;
+    private final Counter replacedSnapshots;
+    private final Counter overruns;
+    private final Counter skippedTicks;
+    private final Timer inputLatency;
+    private final Counter inputCommands;
+    private final Counter droppedInputs;
+
+    // Conteos del último snapshot difundido de cada sala: jugadores, centinelas, proyectiles y objetos del mundo
+    private static final int PLAYERS = 0, SENTINELS = 1, PROJECTILES = 2, WORLD_OBJECTS = 3;
+    private final Map<String, int[]> roomEntities = new ConcurrentHashMap<>();
+
+    // Sesiones: totales como contadores y, una vez por segundo, una muestra de cada sesión en distribuciones comunes
+    // (lo que envió y descartó en ese segundo, profundidad de su cola). Sin el id de sesión como tag la cantidad de
+    // series no crece con las conexiones; las series por sesión quedan detrás de netrunner.metrics.per-session
+    private static final long SESSION_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private final Map<String, SessionSample> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionSample;
+    private final Counter sentBytes;
+    private final Counter sentMessages;
+    private final Counter droppedFrames;
+    private final DistributionSummary sessionBytes;
+    private final DistributionSummary sessionMessages;
+    private final DistributionSummary sessionDroppedFrames;
+    private final DistributionSummary sessionQueueDepth;
+    private final boolean perSessionMeters;
+    private final Map<String, List<Meter>> sessionMeters = new ConcurrentHashMap<>();
+
+    public GameMetrics(MeterRegistry registry,
+                       @Value("${netrunner.loop.tick-rate:30}") int tickRate,
+                       @Value("${netrunner.metrics.per-session:false}") boolean perSessionMeters) {
+        this.registry = registry;
+        this.perSessionMeters = perSessionMeters;
+        this.tickBudget = Duration.ofNanos(TimeUnit.SECONDS.toNanos(1) / tickRate);
+
+        this.tickTimer = Timer.builder("netrunner.tick.duration")
+                .description("Duración de GameEngine.update() más la captura del snapshot")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(tickBudget)
+                .register(registry);
+        for (TickPhase phase : TickPhase.values()) {
+            phaseTimers.put(phase, Timer.builder("netrunner.tick.phase.duration")
+                    .description("Duración de cada fase del tick")
+                    .tag("phase", phase.getTag())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        this.broadcastTimer = Timer.builder("netrunner.broadcast.duration")
+                .description("Codificación y encolado del estado para todas las sesiones")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(tickBudget)
+                .register(registry);
+        this.replacedSnapshots = Counter.builder("netrunner.broadcast.replaced")
+                .description("Snapshots reemplazados por uno más nuevo antes de difundirse (sus eventos pasan al siguiente)")
+                .register(registry);
+        this.overruns = Counter.builder("netrunner.tick.overruns")
+                .description("Ticks que excedieron el presupuesto de tiempo")
+                .register(registry);
+        this.skippedTicks = Counter.builder("netrunner.tick.skipped")
+                .description("Ticks descartados por superar el máximo de recuperación")
+                .register(registry);
+        this.inputLatency = Timer.builder("netrunner.input.latency")
+                .description("Mayor espera en el tick entre la llegada de un comando de entrada y su aplicación")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(tickBudget)
+                .register(registry);
+        this.inputCommands = Counter.builder("netrunner.input.commands")
+                .description("Comandos de entrada aplicados por la simulación")
+                .register(registry);
+        this.droppedInputs = Counter.builder("netrunner.input.dropped")
+                .description("Comandos de entrada descartados por cola llena")
+                .register(registry);
+
+        this.sentBytes = Counter.builder("netrunner.net.sent.bytes")
+                .description("Bytes enviados a todas las sesiones")
+                .baseUnit("bytes")
+                .register(registry);
+        this.sentMessages = Counter.builder("netrunner.net.sent.messages")
+                .description("Frames enviados a todas las sesiones")
+                .register(registry);
+        this.droppedFrames = Counter.builder("netrunner.net.dropped.frames")
+                .description("Frames de estado reemplazados antes de enviarse, en todas las sesiones")
+                .register(registry);
+        this.sessionBytes = DistributionSummary.builder("netrunner.sessions.bytes")
+                .description("Bytes enviados a cada sesión por segundo")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.sessionMessages = DistributionSummary.builder("netrunner.sessions.messages")
+                .description("Frames enviados a cada sesión por segundo")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.sessionDroppedFrames = DistributionSummary.builder("netrunner.sessions.dropped.frames")
+                .description("Frames de estado descartados por sesión y por segundo")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.sessionQueueDepth = DistributionSummary.builder("netrunner.sessions.queue.depth")
+                .description("Frames en la cola de salida de cada sesión al tomar la muestra")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.nextSessionSample = new AtomicLong(System.nanoTime() + SESSION_SAMPLE_NANOS);
+
+        entityGauge("player", PLAYERS);
+        entityGauge("sentinel", SENTINELS);
+        entityGauge("projectile", PROJECTILES);
+        entityGauge("world_object", WORLD_OBJECTS);
+        Gauge.builder("netrunner.sessions", sessions, Map::size).register(registry);
+    }
+
+    public void recordTick(long nanos, TickProfile profile) {
+        tickTimer.record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos > tickBudget.toNanos()) overruns.increment();
+        for (TickPhase phase : TickPhase.values()) {
+            phaseTimers.get(phase).record(profile.getNanos(phase), TimeUnit.NANOSECONDS);
+        }
+        if (profile.getInputCommands() > 0) {
+            inputLatency.record(profile.getMaxInputLatencyNanos(), TimeUnit.NANOSECONDS);
+            inputCommands.increment(profile.getInputCommands());
+        }
+        if (profile.getDroppedInputs() > 0) droppedInputs.increment(profile.getDroppedInputs());
+    }
+
+    public void recordReplacedSnapshot() {
+        replacedSnapshots.increment();
+    }
+
+    public void recordSkippedTicks(long count) {
+        skippedTicks.increment(count);
+    }
+
+    private void entityGauge(String kind, int index) {
+        Gauge.builder("netrunner.entities", roomEntities, rooms -> rooms.values().stream().mapToInt(c -> c[index]).sum())
+                .tag("kind", kind).register(registry);
+    }
+
+    public void recordBroadcast(String room, long nanos, WorldSnapshot snapshot) {
+        broadcastTimer.record(nanos, TimeUnit.NANOSECONDS);
+        roomEntities.put(room, new int[]{
+                snapshot.getPlayers().size(),
+                snapshot.getSentinels().size(),
+                snapshot.getProjectileCount(),
+                snapshot.getWorldObjectCount()});
+        sampleSessions();
+    }
+
+    // La toma el primer hilo de difusión que llega pasado el segundo
+    private void sampleSessions() {
+        long now = System.nanoTime();
+        long next = nextSessionSample.get();
+        if (now - next < 0 || !nextSessionSample.compareAndSet(next, now + SESSION_SAMPLE_NANOS)) return;
+        for (SessionSample sample : sessions.values()) {
+            sample.take(true);
+        }
+    }
+
+    // Salas de cada shard con un snapshot esperando al hilo de difusión
+    public void bindSnapshotQueue(int shard, Collection<?> queue) {
+        Gauge.builder("netrunner.broadcast.queue.depth", queue, Collection::size)
+                .tag("shard", Integer.toString(shard)).register(registry);
+    }
+
+    public void bindRooms(Map<String, ?> rooms) {
+        Gauge.builder("netrunner.rooms", rooms, Map::size).register(registry);
+    }
+
+    public void roomClosed(String room) {
+        roomEntities.remove(room);
+    }
+
+    public void sessionOpened(SessionOutbound outbound) {
+        String session = outbound.getSessionId();
+        sessions.put(session, new SessionSample(outbound));
+        if (!perSessionMeters) return;
+        sessionMeters.put(session, List.of(
+                FunctionCounter.builder("netrunner.session.sent.bytes", outbound, SessionOutbound::getSentBytes)
+                        .tag("session", session).baseUnit("bytes").register(registry),
+                FunctionCounter.builder("netrunner.session.sent.messages", outbound, SessionOutbound::getSentFrames)
+                        .tag("session", session).register(registry),
+                FunctionCounter.builder("netrunner.session.dropped.frames", outbound, SessionOutbound::getDroppedFrames)
+                        .tag("session", session).register(registry),
+                Gauge.builder("netrunner.session.queue.depth", outbound, SessionOutbound::getQueueDepth)
+                        .tag("session", session).register(registry)));
+    }
+
+    public void sessionClosed(String sessionId) {
+        // Lo enviado desde la última muestra suma a los totales; un segundo incompleto no entra en las distribuciones
+        SessionSample sample = sessions.remove(sessionId);
+        if (sample != null) sample.take(false);
+        List<Meter> meters = sessionMeters.remove(sessionId);
+        if (meters != null) {
+            meters.forEach(registry::remove);
+        }
+    }
+
+    // Últimos valores acumulados de una sesión, para registrar la diferencia en cada muestra
+    private final class SessionSample {
+        private final SessionOutbound outbound;
+        private long bytes;
+        private long messages;
+        private long dropped;
+
+        private SessionSample(SessionOutbound outbound) {
+            this.outbound = outbound;
+        }
+
+        // Desde la muestra periódica y desde sessionClosed(): sincronizado para no contar dos veces
+        synchronized void take(boolean distribution) {
+            long nowBytes = outbound.getSentBytes();
+            long nowMessages = outbound.getSentFrames();
+            long nowDropped = outbound.getDroppedFrames();
+            sentBytes.increment(nowBytes - bytes);
+            sentMessages.increment(nowMessages - messages);
+            droppedFrames.increment(nowDropped - dropped);
+            if (distribution) {
+                sessionBytes.record(nowBytes - bytes);
+                sessionMessages.record(nowMessages - messages);
+                sessionDroppedFrames.record(nowDropped - dropped);
+                sessionQueueDepth.record(outbound.getQueueDepth());
+            }
+            bytes = nowBytes;
+            messages = nowMessages;
+            dropped = nowDropped;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import uy.gub.bps.netrunner.domain.model.DataNode;
+import uy.gub.bps.netrunner.domain.model.GameObject;
+import uy.gub.bps.netrunner.domain.model.Player;
+import uy.gub.bps.netrunner.domain.model.Projectile;
+import uy.gub.bps.netrunner.domain.model.Sentinel;
+import uy.gub.bps.netrunner.domain.model.SpaceStation;
+import uy.gub.bps.netrunner.domain.model.Wormhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Calcula el estado de cada sesión como diferencia contra el último frame confirmado (ACK) por el cliente.
+// Con presupuesto de bytes, los cambios pendientes acumulan prioridad cada tick (más cerca, más rápido y nuevo = más prioridad)
+// y el frame se llena de mayor a menor; lo que no entra queda para el siguiente tick con la prioridad acumulada.
+// Se usa únicamente desde el hilo de difusión; solo ack() se invoca desde los hilos del WebSocket.
+class DeltaCompressor {
+
+    // Frames recordados por sesión (~1s a 30Hz); si el ACK es más viejo se envía el estado completo
+    static final int HISTORY_SIZE = 32;
+    // Distancia a la que el peso de una entidad cae a la mitad
+    private static final double PRIORITY_HALF_DISTANCE = 20.0;
+    // Una entidad que el cliente todavía no conoce pesa el doble que una actualización
+    private static final double CREATED_WEIGHT = 2.0;
+
+    private static final Comparator<Change> BY_PRIORITY = Comparator
+            .comparing((Change c) -> !c.self())
+            .thenComparing(Comparator.comparingDouble(Change::priority).reversed());
+
+    private final EntityEncodingCache cache;
+
+    record Delta(long sequence,
+                 long baseline, // 0 = sin baseline, "created" contiene el estado completo
+                 List<EncodedEntity> created,
+                 List<Change> updated, // Se envían solo "i" y los campos marcados
+                 List<Object> removed,
+                 int deferred, // Cambios que no entraron en el presupuesto
+                 int bytes) { // Tamaño de created y updated ya codificados
+    }
+
+    // Cambio pendiente de envío: fields son los campos que cambiaron (0 si el cliente no conoce la entidad)
+    record Change(EncodedEntity entity, long fields, int cost, double priority, boolean self) {
+    }
+
+    DeltaCompressor(EntityEncodingCache cache) {
+        this.cache = cache;
+    }
+
+    // byteBudget <= 0 desactiva el límite; el propio jugador siempre entra
+    Delta encode(ClientBaseline client, GameObject viewer, List<GameObject> visible, int byteBudget) {
+        long sequence = client.nextSequence();
+        long baselineSequence = client.getAckedSequence();
+        Map<Object, EncodedEntity> baseline = client.frame(baselineSequence);
+        if (baseline == null) baselineSequence = 0;
+
+        // Estado que tendrá el cliente tras aplicar este frame (los cambios diferidos conservan la versión anterior)
+        Map<Object, EncodedEntity> current = new HashMap<>(visible.size() * 2);
+        List<Change> pending = new ArrayList<>();
+
+        for (GameObject obj : visible) {
+            EncodedEntity now = cache.get(obj);
+            EncodedEntity before = baseline != null ? baseline.get(now.getId()) : null;
+            long fields = 0;
+            if (before != null) {
+                fields = before == now ? 0 : now.changedSince(before);
+                if (fields == 0) {
+                    current.put(now.getId(), now);
+                    continue;
+                }
+                if (fields > 0) {
+                    current.put(now.getId(), before);
+                } else {
+                    // Handle reutilizado por otra clase de entidad: se reenvía completa
+                    fields = 0;
+                    before = null;
+                }
+            }
+            int cost = fields != 0 ? now.updateSize(fields) : now.size();
+            double priority = client.priority(now.getId()) + weight(viewer, obj, before == null);
+            pending.add(new Change(now, fields, cost, priority, obj == viewer));
+        }
+
+        List<EncodedEntity> created = new ArrayList<>();
+        List<Change> updated = new ArrayList<>();
+        Map<Object, Double> priorities = new HashMap<>();
+        if (byteBudget > 0) pending.sort(BY_PRIORITY);
+
+        int used = 0;
+        for (Change change : pending) {
+            int cost = change.cost();
+            if (byteBudget > 0 && used + cost > byteBudget && !change.self()) {
+                // No entra: espera al próximo tick con la prioridad acumulada
+                priorities.put(change.entity().getId(), change.priority());
+                continue;
+            }
+            used += cost;
+            if (change.fields() != 0) {
+                updated.add(change);
+            } else {
+                created.add(change.entity());
+            }
+            current.put(change.entity().getId(), change.entity());
+        }
+
+        List<Object> removed = new ArrayList<>();
+        if (baseline != null) {
+            for (Object id : baseline.keySet()) {
+                if (!current.containsKey(id)) {
+                    removed.add(id);
+                }
+            }
+        }
+
+        client.record(sequence, current, priorities);
+        return new Delta(sequence, baselineSequence, created, updated, removed, priorities.size(), used);
+    }
+
+    private static double weight(GameObject viewer, GameObject obj, boolean created) {
+        double typeWeight;
+        if (obj instanceof Projectile) {
+            typeWeight = 4.0;
+        } else if (obj instanceof Player) {
+            typeWeight = 3.0;
+        } else if (obj instanceof Sentinel) {
+            typeWeight = 2.0;
+        } else if (obj instanceof Wormhole || obj instanceof SpaceStation || obj instanceof DataNode) {
+            // Puntos de radar: casi estáticos y lejanos
+            typeWeight = 0.5;
+        } else {
+            typeWeight = 1.0;
+        }
+        double dx = obj.getPosition().x() - viewer.getPosition().x();
+        double dy = obj.getPosition().y() - viewer.getPosition().y();
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        return typeWeight * (created ? CREATED_WEIGHT : 1.0) / (1.0 + distance / PRIORITY_HALF_DISTANCE);
+    }
+
+    static class ClientBaseline {
+        private final Map<Long, Map<Object, EncodedEntity>> history = new LinkedHashMap<>(HISTORY_SIZE * 2) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Object, EncodedEntity>> eldest) {
+                return size() > HISTORY_SIZE;
+            }
+        };
+        // Prioridad acumulada de los cambios diferidos, por id de entidad
+        private Map<Object, Double> priorities = Map.of();
+        private volatile long lastSequence;
+        private volatile long ackedSequence;
+
+        long nextSequence() {
+            return lastSequence + 1;
+        }
+
+        long getAckedSequence() {
+            return ackedSequence;
+        }
+
+        Map<Object, EncodedEntity> frame(long sequence) {
+            return sequence > 0 ? history.get(sequence) : null;
+        }
+
+        double priority(Object id) {
+            return priorities.getOrDefault(id, 0.0);
+        }
+
+        void record(long sequence, Map<Object, EncodedEntity> frame, Map<Object, Double> deferred) {
+            history.put(sequence, frame);
+            priorities = deferred;
+            lastSequence = sequence;
+        }
+
+        void ack(long sequence) {
+            // Los ACK pueden llegar desordenados; solo avanzamos
+            if (sequence > ackedSequence && sequence <= lastSequence) {
+                ackedSequence = sequence;
+            }
+        }
+    }
+}
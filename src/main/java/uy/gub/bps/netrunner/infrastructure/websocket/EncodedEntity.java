@@ -0,0 +1,96 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Entidad ya codificada en MessagePack para un tick; los bytes se comparten entre todas las sesiones.
+// Guarda dónde empieza cada par clave/valor para calcular deltas comparando bytes, sin decodificar.
+final class EncodedEntity {
+    private final Object id;
+    private final byte[] bytes;
+    // Inicio de cada campo (el 0 es siempre "i"); el último elemento es bytes.length
+    private final int[] fields;
+
+    EncodedEntity(Object id, byte[] bytes, int[] fields) {
+        this.id = id;
+        this.bytes = bytes;
+        this.fields = fields;
+    }
+
+    // Copia la entidad recién escrita en scratch[0, length) con sus campos
+    static EncodedEntity copyOf(Object id, ByteBuffer scratch, int length, int[] starts, int count) {
+        byte[] bytes = new byte[length];
+        scratch.get(0, bytes);
+        int[] fields = Arrays.copyOf(starts, count + 1);
+        fields[count] = length;
+        return new EncodedEntity(id, bytes, fields);
+    }
+
+    // true si scratch[0, length) tiene exactamente los bytes de esta entidad
+    boolean matches(ByteBuffer scratch, int length) {
+        if (length != bytes.length) return false;
+        for (int i = 0; i < length; i++) {
+            if (scratch.get(i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    Object getId() {
+        return id;
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    int size() {
+        return bytes.length;
+    }
+
+    int fieldStart(int field) {
+        return fields[field];
+    }
+
+    int fieldLength(int field) {
+        return fields[field + 1] - fields[field];
+    }
+
+    // Campos que cambiaron respecto de before como máscara de bits (0 = iguales), o -1 si las claves no coinciden
+    // (el handle se reutilizó para otra clase de entidad) y hay que reenviarla completa
+    long changedSince(EncodedEntity before) {
+        int count = fields.length - 1;
+        if (before.fields.length != fields.length || count >= Long.SIZE) return -1;
+        long changed = 0;
+        for (int f = 0; f < count; f++) {
+            int start = fields[f];
+            int end = fields[f + 1];
+            int beforeStart = before.fields[f];
+            int beforeEnd = before.fields[f + 1];
+            // Las claves son fixstr: un byte de largo más el texto
+            int keyLength = 1 + (bytes[start] & 0x1f);
+            if (!Arrays.equals(bytes, start, start + keyLength, before.bytes, beforeStart, beforeStart + keyLength)) return -1;
+            if (!Arrays.equals(bytes, start, end, before.bytes, beforeStart, beforeEnd)) {
+                changed |= 1L << f;
+            }
+        }
+        return changed;
+    }
+
+    // Bytes del mapa parcial {"i": id, campos cambiados...}
+    int updateSize(long changed) {
+        int size = MsgPackWriter.mapHeaderSize(Long.bitCount(changed) + 1) + fieldLength(0);
+        for (long rest = changed; rest != 0; rest &= rest - 1) {
+            size += fieldLength(Long.numberOfTrailingZeros(rest));
+        }
+        return size;
+    }
+
+    void writeUpdate(MsgPackWriter out, long changed) {
+        out.mapHeader(Long.bitCount(changed) + 1);
+        out.raw(bytes, fields[0], fieldLength(0));
+        for (long rest = changed; rest != 0; rest &= rest - 1) {
+            int field = Long.numberOfTrailingZeros(rest);
+            out.raw(bytes, fields[field], fieldLength(field));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import uy.gub.bps.netrunner.domain.model.GameObject;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Codifica cada entidad una sola vez por tick. Se usa únicamente desde el hilo de difusión.
+class EntityEncodingCache {
+
+    private final EntityWriter writer;
+    private final MsgPackWriter scratch = new MsgPackWriter(null);
+    private ByteBuffer scratchBuffer = ByteBuffer.allocate(512);
+    private Map<GameObject, EncodedEntity> current = new IdentityHashMap<>();
+    private Map<GameObject, EncodedEntity> previous = new IdentityHashMap<>();
+    // Por handle: las copias de jugadores, centinelas y proyectiles son objetos nuevos en cada snapshot,
+    // pero si sus bytes no cambiaron se reutiliza la codificación del tick anterior
+    private Map<Object, EncodedEntity> currentById = new HashMap<>();
+    private Map<Object, EncodedEntity> previousById = new HashMap<>();
+
+    EntityEncodingCache(boolean quantized) {
+        this.writer = new EntityWriter(quantized);
+    }
+
+    void beginTick() {
+        // Los objetos compartidos entre snapshots (meteoritos, nodos, estaciones) reutilizan sus bytes
+        previous = current;
+        current = new IdentityHashMap<>(previous.size());
+        previousById = currentById;
+        currentById = new HashMap<>(previousById.size() * 2);
+    }
+
+    EncodedEntity get(GameObject obj) {
+        EncodedEntity encoded = current.get(obj);
+        if (encoded == null) {
+            encoded = previous.get(obj);
+            if (encoded == null) {
+                encoded = encode(obj);
+            }
+            current.put(obj, encoded);
+            currentById.put(encoded.getId(), encoded);
+        }
+        return encoded;
+    }
+
+    private EncodedEntity encode(GameObject obj) {
+        scratch.reset(scratchBuffer.clear());
+        int count = writer.write(obj, scratch);
+        // El scratch pudo crecer durante la escritura
+        scratchBuffer = scratch.buffer();
+        int length = scratchBuffer.position();
+
+        Integer id = obj.getId();
+        EncodedEntity last = previousById.get(id);
+        if (last != null && last.matches(scratchBuffer, length)) return last;
+        return EncodedEntity.copyOf(id, scratchBuffer, length, writer.fields(), count);
+    }
+}
@@ -0,0 +1,166 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import uy.gub.bps.netrunner.domain.model.GameObject;
+import uy.gub.bps.netrunner.domain.model.Player;
+import uy.gub.bps.netrunner.domain.model.Position;
+import uy.gub.bps.netrunner.domain.model.Projectile;
+import uy.gub.bps.netrunner.domain.model.Sentinel;
+import uy.gub.bps.netrunner.domain.model.Wormhole;
+
+// Codificación de cada entidad con las claves cortas que normalize() de game.js traduce. Solo viajan los campos
+// que el cliente usa; el estado interno (cooldowns, daño, dueño de los proyectiles...) no sale del servidor.
+//   todas:      i, p, s, c, n
+//   Player:     h, mh, sh, ms, co, si, go, am, sa, dbg, l, e, w {n}, vx, vy
+//   Sentinel:   h, sh, sz, vx, vy, maxHp, maxShield (las barras de vida de los jefes usan los nombres largos)
+//   Projectile: vx, vy
+//   Wormhole:   sz, li, st
+//   el resto:   sz
+// Con formato cuantizado las posiciones son [x, y] en punto fijo de 16 bits sin signo (1/256 de celda) y las
+// velocidades enteros de 16 bits con signo (1/4096 de celda por tick); el cliente recibe las escalas en el WELCOME.
+// Sin cuantizar, p es {x, y} y las velocidades float64. "i" es siempre el primer campo.
+final class EntityWriter {
+    static final int POSITION_SCALE = 256;
+    static final int VELOCITY_SCALE = 4096;
+
+    private static final byte[] I = MsgPackWriter.key("i");
+    private static final byte[] P = MsgPackWriter.key("p");
+    private static final byte[] S = MsgPackWriter.key("s");
+    private static final byte[] C = MsgPackWriter.key("c");
+    private static final byte[] N = MsgPackWriter.key("n");
+    private static final byte[] H = MsgPackWriter.key("h");
+    private static final byte[] MH = MsgPackWriter.key("mh");
+    private static final byte[] SH = MsgPackWriter.key("sh");
+    private static final byte[] MS = MsgPackWriter.key("ms");
+    private static final byte[] CO = MsgPackWriter.key("co");
+    private static final byte[] SI = MsgPackWriter.key("si");
+    private static final byte[] GO = MsgPackWriter.key("go");
+    private static final byte[] AM = MsgPackWriter.key("am");
+    private static final byte[] SA = MsgPackWriter.key("sa");
+    private static final byte[] DBG = MsgPackWriter.key("dbg");
+    private static final byte[] L = MsgPackWriter.key("l");
+    private static final byte[] E = MsgPackWriter.key("e");
+    private static final byte[] W = MsgPackWriter.key("w");
+    private static final byte[] VX = MsgPackWriter.key("vx");
+    private static final byte[] VY = MsgPackWriter.key("vy");
+    private static final byte[] SZ = MsgPackWriter.key("sz");
+    private static final byte[] LI = MsgPackWriter.key("li");
+    private static final byte[] ST = MsgPackWriter.key("st");
+    private static final byte[] MAX_HP = MsgPackWriter.key("maxHp");
+    private static final byte[] MAX_SHIELD = MsgPackWriter.key("maxShield");
+    private static final byte[] X = MsgPackWriter.key("x");
+    private static final byte[] Y = MsgPackWriter.key("y");
+
+    private final boolean quantized;
+    private MsgPackWriter out;
+    // Posición de inicio de cada par clave/valor de la última entidad escrita
+    private final int[] fields = new int[32];
+    private int count;
+
+    EntityWriter(boolean quantized) {
+        this.quantized = quantized;
+    }
+
+    // Escribe obj en out y devuelve su cantidad de campos; fields() queda con el inicio de cada uno
+    int write(GameObject obj, MsgPackWriter out) {
+        this.out = out;
+        this.count = 0;
+        switch (obj) {
+            case Player p -> {
+                begin(obj, 20);
+                field(H).float64(p.getHp());
+                field(MH).float64(p.getMaxHp());
+                field(SH).float64(p.getShield());
+                field(MS).float64(p.getMaxShield());
+                field(CO).integer(p.getCopper());
+                field(SI).integer(p.getSilver());
+                field(GO).integer(p.getGold());
+                field(AM).bool(p.isAutoMinerActive());
+                field(SA).bool(p.isScannerActive());
+                field(DBG).bool(p.isDebugMode());
+                field(L).integer(p.getLevel());
+                field(E).integer(p.getExp());
+                field(W);
+                if (p.getWeapon() != null) {
+                    out.mapHeader(1);
+                    out.raw(N);
+                    out.string(p.getWeapon().getName());
+                } else {
+                    out.nil();
+                }
+                velocity(VX, p.getVx());
+                velocity(VY, p.getVy());
+            }
+            case Sentinel s -> {
+                begin(obj, 12);
+                field(H).float64(s.getHp());
+                field(SH).float64(s.getShield());
+                field(SZ).integer(s.getSize());
+                velocity(VX, s.getVx());
+                velocity(VY, s.getVy());
+                field(MAX_HP).float64(s.getMaxHp());
+                field(MAX_SHIELD).float64(s.getMaxShield());
+            }
+            case Projectile p -> {
+                begin(obj, 7);
+                velocity(VX, p.getVx());
+                velocity(VY, p.getVy());
+            }
+            case Wormhole w -> {
+                begin(obj, 8);
+                field(SZ).integer(w.getSize());
+                field(LI).integer(w.getLinkedId());
+                field(ST).integer(w.getSpawnTime());
+            }
+            default -> {
+                begin(obj, 6);
+                field(SZ).integer(obj.getSize());
+            }
+        }
+        return count;
+    }
+
+    int[] fields() {
+        return fields;
+    }
+
+    private void begin(GameObject obj, int size) {
+        out.mapHeader(size);
+        field(I).integer(obj.getId());
+        field(P);
+        position(obj.getPosition());
+        field(S).string(obj.getSymbol());
+        field(C).string(obj.getColor());
+        field(N).string(obj.getName());
+    }
+
+    private MsgPackWriter field(byte[] key) {
+        fields[count++] = out.position();
+        out.raw(key);
+        return out;
+    }
+
+    private void position(Position position) {
+        if (position == null) {
+            out.nil();
+        } else if (quantized) {
+            out.arrayHeader(2);
+            out.integer(Math.clamp(Math.round(position.x() * POSITION_SCALE), 0, 0xFFFF));
+            out.integer(Math.clamp(Math.round(position.y() * POSITION_SCALE), 0, 0xFFFF));
+        } else {
+            out.mapHeader(2);
+            out.raw(X);
+            out.float64(position.x());
+            out.raw(Y);
+            out.float64(position.y());
+        }
+    }
+
+    private void velocity(byte[] key, double value) {
+        field(key);
+        if (quantized) {
+            out.integer(Math.clamp(Math.round(value * VELOCITY_SCALE), Short.MIN_VALUE, Short.MAX_VALUE));
+        } else {
+            out.float64(value);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import uy.gub.bps.netrunner.domain.model.GameEvent;
+import uy.gub.bps.netrunner.domain.model.QuadTree;
+import uy.gub.bps.netrunner.domain.model.VisualEffect;
+import uy.gub.bps.netrunner.domain.model.WorldSnapshot;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Arma cada frame concatenando fragmentos MessagePack ya codificados alrededor de una cabecera por jugador.
+// Las claves son las mismas que GameState ("o", "ef", "v", "dbg") más "sq", "bs", "u", "r" en modo delta.
+// Los eventos viajan en un frame aparte ("t": "EV") porque los frames de estado pueden descartarse;
+// cada uno es un arreglo [código, parámetros...] (ver EventCode).
+// Cada frame se escribe en un buffer directo del FramePool que pasa a ser de quien lo recibe (SessionOutbound
+// lo devuelve al pool después de enviarlo). Se usa únicamente desde el hilo de difusión.
+class FrameEncoder {
+
+    private static final byte[] O = MsgPackWriter.key("o");
+    private static final byte[] SQ = MsgPackWriter.key("sq");
+    private static final byte[] BS = MsgPackWriter.key("bs");
+    private static final byte[] U = MsgPackWriter.key("u");
+    private static final byte[] R = MsgPackWriter.key("r");
+    private static final byte[] EF = MsgPackWriter.key("ef");
+    private static final byte[] V = MsgPackWriter.key("v");
+    private static final byte[] DBG = MsgPackWriter.key("dbg");
+    private static final byte[] T = MsgPackWriter.key("t");
+    private static final byte[] EV = MsgPackWriter.key("ev");
+    private static final byte[] EV_TYPE = MsgPackWriter.key("EV");
+    private static final byte[] X = MsgPackWriter.key("x");
+    private static final byte[] Y = MsgPackWriter.key("y");
+    private static final byte[] TX = MsgPackWriter.key("tx");
+    private static final byte[] TY = MsgPackWriter.key("ty");
+    private static final byte[] C = MsgPackWriter.key("c");
+    private static final byte[] SZ = MsgPackWriter.key("sz");
+    private static final byte[] M = MsgPackWriter.key("m");
+    private static final byte[] W = MsgPackWriter.key("w");
+    private static final byte[] H = MsgPackWriter.key("h");
+    // Cabecera, vibración y claves de un frame sin contar entidades ni efectos
+    private static final int FRAME_OVERHEAD = 64;
+
+    private final FramePool pool;
+    private final MsgPackWriter out;
+    // Para los fragmentos compartidos del tick, que se copian a arreglos propios
+    private final MsgPackWriter scratch = new MsgPackWriter(null);
+    private ByteBuffer scratchBuffer = ByteBuffer.allocate(4096);
+
+    // Fragmentos comunes a todas las sesiones del tick; los efectos se codifican una vez por lista de celda
+    private final Map<List<VisualEffect>, byte[]> effectsPayloads = new IdentityHashMap<>();
+    private byte[] globalEventsPayload;
+    private int globalEventCount;
+
+    FrameEncoder(FramePool pool) {
+        this.pool = pool;
+        this.out = new MsgPackWriter(pool);
+    }
+
+    void beginTick(WorldSnapshot snapshot) {
+        effectsPayloads.clear();
+
+        MsgPackWriter events = startScratch();
+        for (GameEvent event : snapshot.getEvents()) {
+            writeEvent(events, event);
+        }
+        globalEventsPayload = finishScratch();
+        globalEventCount = snapshot.getEvents().size();
+    }
+
+    ByteBuffer encodeFull(List<EncodedEntity> objects, List<VisualEffect> effects, Double vibration, Map<String, Object> debugData) {
+        int size = FRAME_OVERHEAD;
+        for (EncodedEntity entity : objects) {
+            size += entity.size();
+        }
+        byte[] effectsPayload = effectsPayload(effects);
+        out.reset(pool.acquire(size + effectsPayload.length));
+        out.mapHeader(4);
+        out.raw(O);
+        writeEntities(objects);
+        writeCommon(effectsPayload, vibration, debugData);
+        return out.finish();
+    }
+
+    ByteBuffer encodeDelta(DeltaCompressor.Delta delta, List<VisualEffect> effects, Double vibration, Map<String, Object> debugData) {
+        byte[] effectsPayload = effectsPayload(effects);
+        out.reset(pool.acquire(FRAME_OVERHEAD + delta.bytes() + 5 * delta.removed().size() + effectsPayload.length));
+        out.mapHeader(8);
+        out.raw(SQ);
+        out.integer(delta.sequence());
+        out.raw(BS);
+        out.integer(delta.baseline());
+        out.raw(O);
+        writeEntities(delta.created());
+        out.raw(U);
+        out.arrayHeader(delta.updated().size());
+        for (DeltaCompressor.Change change : delta.updated()) {
+            change.entity().writeUpdate(out, change.fields());
+        }
+        out.raw(R);
+        out.arrayHeader(delta.removed().size());
+        for (Object id : delta.removed()) {
+            writeValue(out, id);
+        }
+        writeCommon(effectsPayload, vibration, debugData);
+        return out.finish();
+    }
+
+    // Devuelve null si la sesión no tiene eventos en este tick
+    ByteBuffer encodeEvents(List<GameEvent> privateEvents) {
+        if (globalEventCount == 0 && privateEvents.isEmpty()) return null;
+        out.reset(pool.acquire(FRAME_OVERHEAD + globalEventsPayload.length + 64 * privateEvents.size()));
+        out.mapHeader(2);
+        out.raw(T);
+        out.raw(EV_TYPE);
+        out.raw(EV);
+        out.arrayHeader(globalEventCount + privateEvents.size());
+        out.raw(globalEventsPayload);
+        for (GameEvent event : privateEvents) {
+            writeEvent(out, event);
+        }
+        return out.finish();
+    }
+
+    private void writeEntities(List<EncodedEntity> objects) {
+        out.arrayHeader(objects.size());
+        for (EncodedEntity entity : objects) {
+            out.raw(entity.getBytes());
+        }
+    }
+
+    private void writeCommon(byte[] effectsPayload, Double vibration, Map<String, Object> debugData) {
+        out.raw(EF);
+        out.raw(effectsPayload);
+
+        out.raw(V);
+        if (vibration != null) {
+            out.float64(vibration);
+        } else {
+            out.nil();
+        }
+
+        out.raw(DBG);
+        if (debugData != null) {
+            writeValue(out, debugData);
+        } else {
+            out.nil();
+        }
+    }
+
+    private byte[] effectsPayload(List<VisualEffect> effects) {
+        byte[] payload = effectsPayloads.get(effects);
+        if (payload == null) {
+            MsgPackWriter writer = startScratch();
+            writer.arrayHeader(effects.size());
+            for (VisualEffect effect : effects) {
+                writeEffect(writer, effect);
+            }
+            payload = finishScratch();
+            effectsPayloads.put(effects, payload);
+        }
+        return payload;
+    }
+
+    // Los campos nulos se omiten: el cliente los trata igual que ausentes
+    private static void writeEffect(MsgPackWriter writer, VisualEffect effect) {
+        int size = 4 + (effect.tx() != null ? 1 : 0) + (effect.ty() != null ? 1 : 0)
+                + (effect.size() != null ? 1 : 0) + (effect.message() != null ? 1 : 0);
+        writer.mapHeader(size);
+        writer.raw(T);
+        writer.string(effect.type());
+        writer.raw(X);
+        writer.float64(effect.x());
+        writer.raw(Y);
+        writer.float64(effect.y());
+        if (effect.tx() != null) {
+            writer.raw(TX);
+            writer.float64(effect.tx());
+        }
+        if (effect.ty() != null) {
+            writer.raw(TY);
+            writer.float64(effect.ty());
+        }
+        writer.raw(C);
+        writer.string(effect.color());
+        if (effect.size() != null) {
+            writer.raw(SZ);
+            writer.integer(effect.size());
+        }
+        if (effect.message() != null) {
+            writer.raw(M);
+            writer.string(effect.message());
+        }
+    }
+
+    private static void writeEvent(MsgPackWriter writer, GameEvent event) {
+        writer.arrayHeader(event.args().length + 1);
+        writer.integer(event.code().getCode());
+        for (Object arg : event.args()) {
+            writeValue(writer, arg);
+        }
+    }
+
+    // Parámetros de eventos y datos de depuración: escalares, mapas, colecciones y rectángulos del índice
+    private static void writeValue(MsgPackWriter writer, Object value) {
+        switch (value) {
+            case null -> writer.nil();
+            case String s -> writer.string(s);
+            case Boolean b -> writer.bool(b);
+            case Double d -> writer.float64(d);
+            case Float f -> writer.float32(f);
+            case Number n -> writer.integer(n.longValue());
+            case Enum<?> e -> writer.string(e.name());
+            case QuadTree.Rectangle r -> {
+                writer.mapHeader(4);
+                writer.raw(X);
+                writer.float64(r.x);
+                writer.raw(Y);
+                writer.float64(r.y);
+                writer.raw(W);
+                writer.float64(r.w);
+                writer.raw(H);
+                writer.float64(r.h);
+            }
+            case Map<?, ?> map -> {
+                writer.mapHeader(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writer.string(String.valueOf(entry.getKey()));
+                    writeValue(writer, entry.getValue());
+                }
+            }
+            case Collection<?> items -> {
+                writer.arrayHeader(items.size());
+                for (Object item : items) {
+                    writeValue(writer, item);
+                }
+            }
+            default -> writer.string(value.toString());
+        }
+    }
+
+    private MsgPackWriter startScratch() {
+        return scratch.reset(scratchBuffer.clear());
+    }
+
+    private byte[] finishScratch() {
+        scratchBuffer = scratch.buffer();
+        byte[] payload = new byte[scratchBuffer.position()];
+        scratchBuffer.get(0, payload);
+        return payload;
+    }
+}
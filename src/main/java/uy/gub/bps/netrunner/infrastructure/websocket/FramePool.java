@@ -0,0 +1,58 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Buffers directos para los frames salientes, por clases de tamaño potencia de 2 (256 B a 1 MiB).
+// El hilo de difusión los toma, los llena y los entrega a SessionOutbound, que los devuelve después de enviarlos:
+// el mismo buffer llega al socket sin copias intermedias. Las colas son arreglos acotados, así que devolver
+// un buffer no asigna nada; si una clase está llena el buffer se descarta y lo libera el GC.
+class FramePool {
+    private static final int MIN_SHIFT = 8;
+    private static final int MAX_SHIFT = 20;
+    // Memoria retenida como máximo por clase de tamaño
+    private static final int BYTES_PER_CLASS = 16 << 20;
+
+    private final ArrayBlockingQueue<ByteBuffer>[] classes;
+
+    @SuppressWarnings("unchecked")
+    FramePool() {
+        classes = new ArrayBlockingQueue[MAX_SHIFT - MIN_SHIFT + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new ArrayBlockingQueue<>(Math.max(16, BYTES_PER_CLASS >> (MIN_SHIFT + i)));
+        }
+    }
+
+    // Buffer vacío de al menos minCapacity bytes, listo para escribir
+    ByteBuffer acquire(int minCapacity) {
+        int index = classIndex(minCapacity);
+        if (index >= classes.length) {
+            // Frame fuera de escala: no se recicla
+            return ByteBuffer.allocateDirect(minCapacity);
+        }
+        ByteBuffer buffer = classes[index].poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(1 << (MIN_SHIFT + index));
+    }
+
+    // Acepta cualquier buffer; solo se reciclan los directos con capacidad exacta de una clase
+    void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || Integer.bitCount(buffer.capacity()) != 1) return;
+        int index = classIndex(buffer.capacity());
+        if (index < classes.length && (1 << (MIN_SHIFT + index)) == buffer.capacity()) {
+            classes[index].offer(buffer);
+        }
+    }
+
+    int pooled() {
+        int count = 0;
+        for (ArrayBlockingQueue<ByteBuffer> queue : classes) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    private static int classIndex(int capacity) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(1, capacity - 1));
+        return Math.max(0, shift - MIN_SHIFT);
+    }
+}
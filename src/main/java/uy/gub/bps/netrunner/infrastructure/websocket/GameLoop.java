@@ -1,22 +1,245 @@
 package uy.gub.bps.netrunner.infrastructure.websocket;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import uy.gub.bps.netrunner.domain.model.WorldSnapshot;
 import uy.gub.bps.netrunner.domain.service.GameEngine;
+import uy.gub.bps.netrunner.infrastructure.metrics.GameMetrics;
 
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Simulación de todas las salas sobre un pool fijo de hilos: cada shard tiene un hilo de simulación que avanza
+// sus salas a paso fijo y un hilo de difusión que las codifica y encola mientras el primero sigue con el próximo tick.
+// Cada sala tiene un lugar para su último snapshot: una sala con difusión lenta pierde frames de estado (no eventos)
+// sin frenar el tick de las demás salas del shard.
+@Slf4j
 @Component
-@EnableScheduling
-@RequiredArgsConstructor
 public class GameLoop {
 
-    private final GameEngine gameEngine;
+    // Últimos microsegundos antes del deadline se esperan en spin para no depender de la granularidad del parkNanos
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final RoomManager roomManager;
     private final GameWebSocketHandler gameWebSocketHandler;
+    private final GameMetrics metrics;
+    private final int tickRate;
+    private final long tickNanos;
+    private final int maxCatchUpTicks;
+    private final Shard[] shards;
+
+    private final AtomicLong tickCount = new AtomicLong();
+    private final AtomicLong overrunCount = new AtomicLong();
+    private final AtomicLong skippedTickCount = new AtomicLong();
+    private volatile long lastTickNanos;
+    private volatile long maxTickNanos;
+    private volatile long lastBroadcastNanos;
+
+    private volatile boolean running;
+
+    public GameLoop(RoomManager roomManager,
+                    GameWebSocketHandler gameWebSocketHandler,
+                    GameMetrics metrics,
+                    @Value("${netrunner.loop.tick-rate:30}") int tickRate,
+                    @Value("${netrunner.loop.max-catch-up-ticks:3}") int maxCatchUpTicks) {
+        this.roomManager = roomManager;
+        this.gameWebSocketHandler = gameWebSocketHandler;
+        this.metrics = metrics;
+        this.tickRate = tickRate;
+        this.tickNanos = TimeUnit.SECONDS.toNanos(1) / tickRate;
+        this.maxCatchUpTicks = Math.max(1, maxCatchUpTicks);
+        this.shards = new Shard[roomManager.getShardCount()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i);
+            metrics.bindSnapshotQueue(i, shards[i].ready);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (Shard shard : shards) {
+            shard.thread = Thread.ofPlatform()
+                    .name("game-loop-" + shard.index)
+                    .daemon(true)
+                    .priority(Thread.MAX_PRIORITY)
+                    .unstarted(() -> loop(shard));
+            shard.broadcastThread = Thread.ofPlatform()
+                    .name("game-broadcast-" + shard.index)
+                    .daemon(true)
+                    .unstarted(() -> broadcastLoop(shard));
+            shard.broadcastThread.start();
+            shard.thread.start();
+        }
+        log.info("Game loop started at {} Hz on {} tick threads (max catch-up: {} ticks)", tickRate, shards.length, maxCatchUpTicks);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Shard shard : shards) {
+            for (Thread t : new Thread[]{shard.thread, shard.broadcastThread}) {
+                if (t != null) {
+                    t.interrupt();
+                    t.join(TimeUnit.SECONDS.toMillis(1));
+                }
+            }
+        }
+    }
+
+    private void loop(Shard shard) {
+        while (running) {
+            // Cada sala lleva su propio reloj: las creadas más tarde quedan desfasadas y reparten la carga del shard
+            long now = System.nanoTime();
+            long earliest = Long.MAX_VALUE;
+            for (GameRoom room : roomManager.getRooms()) {
+                if (room.getShard() != shard.index) continue;
+                if (room.nextTick == 0) room.nextTick = now;
+                earliest = Math.min(earliest, room.nextTick);
+            }
+            if (earliest == Long.MAX_VALUE) {
+                LockSupport.parkNanos(tickNanos);
+                continue;
+            }
+
+            long wait = earliest - now;
+            if (wait > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(wait - SPIN_THRESHOLD_NANOS);
+                continue;
+            }
+            if (wait > 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            for (GameRoom room : roomManager.getRooms()) {
+                if (room.getShard() == shard.index && room.nextTick != 0 && room.nextTick <= now) {
+                    step(shard, room, now);
+                }
+            }
+        }
+    }
+
+    private void step(Shard shard, GameRoom room, long now) {
+        // Cerrada desde un hilo de red después de leer la lista de salas
+        if (room.closed) return;
+        GameEngine gameEngine = room.getEngine();
+        // Ticks vencidos: se simulan hasta maxCatchUpTicks pasos fijos y el resto se descarta
+        long due = (now - room.nextTick) / tickNanos + 1;
+        if (due > maxCatchUpTicks) {
+            long skipped = due - maxCatchUpTicks;
+            skippedTickCount.addAndGet(skipped);
+            metrics.recordSkippedTicks(skipped);
+            room.nextTick += skipped * tickNanos;
+            due = maxCatchUpTicks;
+            log.warn("Room {} behind schedule, skipped {} ticks", room.getId(), skipped);
+        }
+
+        for (int i = 0; i < due; i++) {
+            long start = System.nanoTime();
+            WorldSnapshot snapshot = null;
+            try {
+                gameEngine.update();
+                if (i == due - 1) {
+                    // Solo se publica el estado del último paso de la ráfaga de recuperación;
+                    // los eventos de los pasos anteriores siguen pendientes y viajan en este snapshot
+                    snapshot = gameEngine.snapshot();
+                }
+            } catch (Exception e) {
+                log.error("Error running game tick in room {}: {}", room.getId(), e.getMessage(), e);
+            }
+            recordTick(gameEngine, System.nanoTime() - start);
+            room.nextTick += tickNanos;
+            if (snapshot != null) publish(shard, room, snapshot);
+        }
+    }
+
+    // Deja el snapshot en el lugar de la sala sin bloquear. Si la difusión todavía no tomó el anterior, el nuevo lo
+    // reemplaza y hereda sus eventos; la sala entra a la cola de difusión solo cuando su lugar estaba vacío
+    private void publish(Shard shard, GameRoom room, WorldSnapshot snapshot) {
+        WorldSnapshot stale = room.pendingSnapshot.get();
+        while (!room.pendingSnapshot.compareAndSet(stale, stale == null ? snapshot : snapshot.after(stale))) {
+            stale = room.pendingSnapshot.get();
+        }
+        if (stale == null) {
+            shard.ready.add(room);
+        } else {
+            metrics.recordReplacedSnapshot();
+        }
+    }
+
+    private void broadcastLoop(Shard shard) {
+        while (running) {
+            try {
+                GameRoom room = shard.ready.take();
+                WorldSnapshot snapshot = room.pendingSnapshot.getAndSet(null);
+                if (snapshot == null || room.closed) continue;
+                long start = System.nanoTime();
+                gameWebSocketHandler.broadcastState(room, snapshot);
+                lastBroadcastNanos = System.nanoTime() - start;
+                metrics.recordBroadcast(room.getId(), lastBroadcastNanos, snapshot);
+                // Si se cerró durante la difusión, RoomManager pudo quitar sus conteos antes de este registro
+                if (room.closed) metrics.roomClosed(room.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error broadcasting snapshot: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void recordTick(GameEngine gameEngine, long elapsed) {
+        tickCount.incrementAndGet();
+        lastTickNanos = elapsed;
+        if (elapsed > maxTickNanos) maxTickNanos = elapsed;
+        if (elapsed > tickNanos) overrunCount.incrementAndGet();
+        metrics.recordTick(elapsed, gameEngine.getTickProfile());
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public long getTickCount() {
+        return tickCount.get();
+    }
+
+    public long getOverrunCount() {
+        return overrunCount.get();
+    }
+
+    public long getSkippedTickCount() {
+        return skippedTickCount.get();
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public long getMaxTickNanos() {
+        return maxTickNanos;
+    }
+
+    public long getLastBroadcastNanos() {
+        return lastBroadcastNanos;
+    }
+
+    private static class Shard {
+        final int index;
+        // Salas con un snapshot en su lugar, en orden de publicación; cada sala figura a lo sumo una vez
+        final BlockingQueue<GameRoom> ready = new LinkedBlockingQueue<>();
+        Thread thread;
+        Thread broadcastThread;
 
-    @Scheduled(fixedRate = 33) // ~30fps para reducir uso de CPU (antes 17ms/60fps)
-    public void run() {
-        gameEngine.update();
-        gameWebSocketHandler.broadcastState();
+        Shard(int index) {
+            this.index = index;
+        }
     }
 }
@@ -0,0 +1,49 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import lombok.Getter;
+import uy.gub.bps.netrunner.domain.model.WorldSnapshot;
+import uy.gub.bps.netrunner.domain.service.GameEngine;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Una sala: un mundo propio con sus sesiones, asignado de por vida a un hilo de simulación (shard) de GameLoop
+public class GameRoom {
+
+    @Getter
+    private final String id;
+    @Getter
+    private final GameEngine engine;
+    @Getter
+    private final int shard;
+    // La sala por defecto no se cierra aunque quede vacía
+    @Getter
+    private final boolean permanent;
+    final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+
+    // Se marca antes de apagar el motor: los hilos del shard dejan de simularla y de publicar sus métricas
+    volatile boolean closed;
+    // Próximo tick programado; solo lo usa el hilo de simulación del shard (0 = sin programar)
+    long nextTick;
+    // Último snapshot publicado y todavía no difundido; lo escribe el hilo de simulación y lo vacía el de difusión
+    final AtomicReference<WorldSnapshot> pendingSnapshot = new AtomicReference<>();
+    // Estado de codificación por tick; solo lo usa el hilo de difusión del shard
+    RoomEncoder encoder;
+
+    GameRoom(String id, GameEngine engine, int shard, boolean permanent) {
+        this.id = id;
+        this.engine = engine;
+        this.shard = shard;
+        this.permanent = permanent;
+    }
+
+    public Set<String> getSessionIds() {
+        return Collections.unmodifiableSet(sessionIds);
+    }
+
+    public int getPlayerCount() {
+        return sessionIds.size();
+    }
+}
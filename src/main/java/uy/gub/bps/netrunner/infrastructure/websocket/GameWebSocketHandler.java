@@ -1,121 +1,226 @@
 package uy.gub.bps.netrunner.infrastructure.websocket;
 
+import jakarta.annotation.PreDestroy;
 import org.msgpack.jackson.dataformat.MessagePackFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.AbstractWebSocketHandler;
-import uy.gub.bps.netrunner.domain.model.GameState;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import uy.gub.bps.netrunner.domain.model.GameObject;
 import uy.gub.bps.netrunner.domain.model.InputMessage;
 import uy.gub.bps.netrunner.domain.model.Player;
 import uy.gub.bps.netrunner.domain.model.VisualEffect;
-import uy.gub.bps.netrunner.domain.service.GameEngine;
+import uy.gub.bps.netrunner.domain.model.WorldSnapshot;
+import uy.gub.bps.netrunner.domain.service.InputCommand;
+import uy.gub.bps.netrunner.infrastructure.metrics.GameMetrics;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Slf4j
 @Component
 public class GameWebSocketHandler extends AbstractWebSocketHandler {
 
-    private final GameEngine gameEngine;
-    private final com.fasterxml.jackson.databind.ObjectMapper jsonMapper;
+    private final RoomManager roomManager;
+    private final GameMetrics metrics;
     private final com.fasterxml.jackson.databind.ObjectMapper msgPackMapper;
+    // Lectores del formato de texto {t, d} anterior al binario, armados una sola vez
+    private final com.fasterxml.jackson.databind.ObjectReader jsonInputReader;
+    private final com.fasterxml.jackson.databind.ObjectReader msgPackInputReader;
+    // Comando de trabajo por hilo del contenedor: el motor lo copia a su cola, así que se reutiliza en cada frame
+    private final ThreadLocal<InputCommand> scratchInput = ThreadLocal.withInitial(InputCommand::new);
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
-    private final Map<String, UUID> sessionToPlayerId = new ConcurrentHashMap<>();
+    private final Map<String, Integer> sessionToPlayerId = new ConcurrentHashMap<>();
+    private final Map<String, GameRoom> sessionToRoom = new ConcurrentHashMap<>();
+    private final Map<String, DeltaCompressor.ClientBaseline> baselines = new ConcurrentHashMap<>();
+    private final Map<String, SessionOutbound> outbounds = new ConcurrentHashMap<>();
+    // Cada sesión drena su cola en un hilo virtual propio; un cliente lento solo se bloquea a sí mismo
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final boolean deltaEnabled;
+    private final int maxQueuedEvents;
+    private final int frameByteBudget;
+    private final boolean quantized;
+    // Buffers directos de los frames salientes, compartidos por todas las salas
+    final FramePool framePool = new FramePool();
 
-    public GameWebSocketHandler(GameEngine gameEngine) {
-        this.gameEngine = gameEngine;
-        this.jsonMapper = new com.fasterxml.jackson.databind.ObjectMapper();
+    public GameWebSocketHandler(RoomManager roomManager,
+                                GameMetrics metrics,
+                                @Value("${netrunner.net.delta-enabled:true}") boolean deltaEnabled,
+                                @Value("${netrunner.net.max-queued-events:256}") int maxQueuedEvents,
+                                @Value("${netrunner.net.frame-byte-budget:8192}") int frameByteBudget,
+                                @Value("${netrunner.net.quantized:true}") boolean quantized) {
+        this.roomManager = roomManager;
+        this.metrics = metrics;
         this.msgPackMapper = new com.fasterxml.jackson.databind.ObjectMapper(new MessagePackFactory());
+        this.jsonInputReader = new com.fasterxml.jackson.databind.ObjectMapper().readerFor(InputMessage.class);
+        this.msgPackInputReader = msgPackMapper.readerFor(InputMessage.class);
+        this.deltaEnabled = deltaEnabled;
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.frameByteBudget = frameByteBudget;
+        this.quantized = quantized;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         String sessionId = session.getId();
-        UUID playerId = UUID.randomUUID();
+        GameRoom room = roomManager.join(requestedRoom(session.getUri()), sessionId);
+        // El id lo asigna el motor de la sala: los handles son propios de cada mundo
+        Player player = room.getEngine().addPlayer("Player-" + sessionId.substring(0, 4));
+        int playerId = player.getId();
         
         sessions.put(sessionId, session);
         sessionToPlayerId.put(sessionId, playerId);
-        
-        Player player = gameEngine.addPlayer(playerId, "Player-" + sessionId.substring(0, 4));
+        sessionToRoom.put(sessionId, room);
+        baselines.put(sessionId, new DeltaCompressor.ClientBaseline());
+        SessionOutbound outbound = new SessionOutbound(session, sendExecutor, maxQueuedEvents, framePool);
+        outbounds.put(sessionId, outbound);
+        metrics.sessionOpened(outbound);
         
         // Enviar mensaje de bienvenida con el ID del jugador (usamos MessagePack)
-        byte[] payload = msgPackMapper.writeValueAsBytes(Map.of(
-            "t", "WELCOME",
-            "pi", playerId,
-            "pn", player.getName()
-        ));
-        session.sendMessage(new BinaryMessage(payload));
+        Map<String, Object> welcome = new java.util.LinkedHashMap<>();
+        welcome.put("t", "WELCOME");
+        welcome.put("pi", playerId);
+        welcome.put("pn", player.getName());
+        welcome.put("rm", room.getId());
+        if (quantized) {
+            // Escalas de punto fijo para decodificar posiciones y velocidades
+            welcome.put("qp", EntityWriter.POSITION_SCALE);
+            welcome.put("qv", EntityWriter.VELOCITY_SCALE);
+        }
+        byte[] payload = msgPackMapper.writeValueAsBytes(welcome);
+        outbound.offerEvent(java.nio.ByteBuffer.wrap(payload));
         
-        log.info("New connection: {} (Player ID: {})", sessionId, playerId);
+        log.info("New connection: {} (Player ID: {}, room: {})", sessionId, playerId, room.getId());
+    }
+
+    // Sala pedida en la URL: /game/<sala> o /game?room=<sala>; null deja la elección al RoomManager
+    private static String requestedRoom(URI uri) {
+        if (uri == null) return null;
+        UriComponents components = UriComponentsBuilder.fromUri(uri).build();
+        List<String> segments = components.getPathSegments();
+        if (segments.size() > 1 && "game".equals(segments.get(segments.size() - 2))) {
+            return segments.getLast();
+        }
+        return components.getQueryParams().getFirst("room");
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
-        handleInput(session, message.getPayload().getBytes());
+        // Solo el formato anterior viaja como texto; se lee del String sin volver a codificarlo
+        GameRoom room = sessionToRoom.get(session.getId());
+        Integer playerId = sessionToPlayerId.get(session.getId());
+        if (playerId != null && room != null) {
+            handleLegacyInput(session.getId(), playerId, room, jsonInputReader.readValue(message.getPayload()));
+        }
     }
 
+    // Lee directamente del ByteBuffer del frame (puede ser directo): sin copiar el payload ni asignar por mensaje
     @Override
     protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
-        handleInput(session, message.getPayload().array());
+        String sessionId = session.getId();
+        Integer playerId = sessionToPlayerId.get(sessionId);
+        GameRoom room = sessionToRoom.get(sessionId);
+        if (playerId == null || room == null) return;
+
+        java.nio.ByteBuffer frame = message.getPayload();
+        if (InputProtocol.isBinary(frame)) {
+            long sq = InputProtocol.ack(frame);
+            if (sq >= 0) {
+                ack(sessionId, sq);
+                return;
+            }
+            InputCommand command = scratchInput.get();
+            if (InputProtocol.decode(frame, playerId, System.nanoTime(), command)) {
+                room.getEngine().processInput(command);
+            }
+            return;
+        }
+
+        // Formato de texto {t, d} anterior al binario, en MessagePack (o JSON en un frame binario)
+        boolean json = frame.hasRemaining() && frame.get(frame.position()) == '{';
+        com.fasterxml.jackson.databind.ObjectReader reader = json ? jsonInputReader : msgPackInputReader;
+        InputMessage input = frame.hasArray()
+                ? reader.readValue(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining())
+                : reader.readValue(new com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream(frame));
+        handleLegacyInput(sessionId, playerId, room, input);
     }
 
-    private void handleInput(WebSocketSession session, byte[] payload) throws IOException {
-        String sessionId = session.getId();
-        UUID playerId = sessionToPlayerId.get(sessionId);
-        
-        if (playerId != null) {
-            InputMessage input;
-            if (payload.length > 0 && payload[0] == '{') { // Probablemente JSON
-                input = jsonMapper.readValue(payload, InputMessage.class);
-            } else {
-                input = msgPackMapper.readValue(payload, InputMessage.class);
+    private void handleLegacyInput(String sessionId, int playerId, GameRoom room, InputMessage input) {
+        if ("ACK".equals(input.getType())) {
+            // Un ACK mal formado se ignora, igual que las coordenadas inválidas de SHOOT
+            if (input.getPayload() != null) {
+                try {
+                    ack(sessionId, Long.parseLong(input.getPayload().trim()));
+                } catch (NumberFormatException e) {
+                    return;
+                }
             }
-            gameEngine.processInput(playerId, input);
+            return;
         }
+        room.getEngine().processInput(playerId, input);
+    }
+
+    // Confirmación de frame diferencial: pasa a ser la baseline de la sesión
+    private void ack(String sessionId, long sq) {
+        DeltaCompressor.ClientBaseline baseline = baselines.get(sessionId);
+        if (baseline != null) baseline.ack(sq);
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         String sessionId = session.getId();
-        UUID playerId = sessionToPlayerId.remove(sessionId);
+        Integer playerId = sessionToPlayerId.remove(sessionId);
+        GameRoom room = sessionToRoom.remove(sessionId);
         sessions.remove(sessionId);
+        baselines.remove(sessionId);
+        SessionOutbound outbound = outbounds.remove(sessionId);
+        if (outbound != null) outbound.discard();
+        metrics.sessionClosed(sessionId);
         
-        if (playerId != null) {
-            gameEngine.removePlayer(playerId);
+        if (room != null) {
+            if (playerId != null) room.getEngine().removePlayer(playerId);
+            roomManager.leave(room, sessionId);
         }
         
         log.info("Connection closed: {}", sessionId);
     }
 
-    public void broadcastState() {
+    public void broadcastState(GameRoom room, WorldSnapshot snapshot) {
         try {
-            List<String> globalEvents = gameEngine.getPendingEvents();
-            List<VisualEffect> globalEffects = gameEngine.getPendingEffects();
-            
-            sessions.forEach((sessionId, session) -> {
-                if (session.isOpen()) {
+            beginFrame(room, snapshot);
+            room.getSessionIds().forEach(sessionId -> {
+                WebSocketSession session = sessions.get(sessionId);
+                if (session != null && session.isOpen()) {
                     try {
-                        UUID playerId = sessionToPlayerId.get(sessionId);
-                        if (playerId == null) return;
-
-                        List<String> playerEvents = new ArrayList<>(globalEvents);
-                        playerEvents.addAll(gameEngine.getPendingEvents(playerId));
-                        
-                        GameState playerState = gameEngine.getCurrentState(playerId);
-                        playerState.setEvents(playerEvents);
-                        playerState.setEffects(globalEffects);
-                        
-                        byte[] payload = msgPackMapper.writeValueAsBytes(playerState);
-                        session.sendMessage(new BinaryMessage(payload));
+                        Integer playerId = sessionToPlayerId.get(sessionId);
+                        SessionOutbound outbound = outbounds.get(sessionId);
+                        if (playerId == null || outbound == null) return;
+                        // Jugador recién conectado que todavía no figura en este snapshot
+                        Player player = snapshot.getPlayers().get(playerId);
+                        if (player == null) return;
+
+                        java.nio.ByteBuffer payload = encodeState(room, snapshot, player, baselines.get(sessionId));
+                        java.nio.ByteBuffer events = room.encoder.frameEncoder.encodeEvents(snapshot.privateEventsFor(playerId));
+                        if (events != null) outbound.offerEvent(events);
+                        outbound.offerState(payload);
                     } catch (Exception e) {
                         log.error("Error sending message to session {}: {}", session.getId(), e.getMessage());
                     }
@@ -125,4 +230,35 @@ public class GameWebSocketHandler extends AbstractWebSocketHandler {
             log.error("Error broadcasting state: {}", e.getMessage());
         }
     }
+
+    // Prepara los fragmentos compartidos del tick de la sala; debe llamarse antes de encodeState
+    void beginFrame(GameRoom room, WorldSnapshot snapshot) throws IOException {
+        if (room.encoder == null) {
+            room.encoder = new RoomEncoder(framePool, quantized);
+        }
+        room.encoder.entityCache.beginTick();
+        room.encoder.frameEncoder.beginTick(snapshot);
+    }
+
+    java.nio.ByteBuffer encodeState(GameRoom room, WorldSnapshot snapshot, Player player, DeltaCompressor.ClientBaseline baseline) throws IOException {
+        RoomEncoder encoder = room.encoder;
+        List<GameObject> visible = snapshot.visibleObjects(player);
+        List<VisualEffect> effects = snapshot.effectsFor(player);
+        Double vibration = snapshot.getVibrations().get(player.getId());
+        Map<String, Object> debugData = player.isDebugMode() ? snapshot.debugData(visible.size()) : null;
+
+        if (deltaEnabled && baseline != null) {
+            DeltaCompressor.Delta delta = encoder.deltaCompressor.encode(baseline, player, visible, frameByteBudget);
+            return encoder.frameEncoder.encodeDelta(delta, effects, vibration, debugData);
+        }
+        List<EncodedEntity> objects = new ArrayList<>(visible.size());
+        for (GameObject obj : visible) {
+            objects.add(encoder.entityCache.get(obj));
+        }
+        return encoder.frameEncoder.encodeFull(objects, effects, vibration, debugData);
+    }
+
+    public Map<String, SessionOutbound> getOutbounds() {
+        return Collections.unmodifiableMap(outbounds);
+    }
 }
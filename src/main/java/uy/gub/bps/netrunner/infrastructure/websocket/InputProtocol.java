@@ -0,0 +1,79 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import uy.gub.bps.netrunner.domain.service.InputCommand;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Frames de entrada del cliente: un byte de opcode y sus argumentos en big-endian (ver sendInput en game.js).
+//   MOVE     0x01 u8 máscara de direcciones mantenidas (InputCommand.UP | DOWN | LEFT | RIGHT)
+//   SHOOT    0x02 [i16 x, i16 y] destino en punto fijo AIM_SCALE; sin argumentos dispara hacia donde mira
+//   SCANNER  0x03 u8 0/1
+//   ACK      0x04 u32 sq del último frame diferencial recibido
+//   NAME     0x05 UTF-8    COLOR 0x06    CHAT 0x07 UTF-8    BUY 0x08 UTF-8
+// Los opcodes están por debajo de '{' y de los encabezados de mapa MessagePack, así que el formato de texto
+// {t, d} anterior se sigue reconociendo por el primer byte.
+final class InputProtocol {
+    static final byte MOVE = 0x01;
+    static final byte SHOOT = 0x02;
+    static final byte SCANNER = 0x03;
+    static final byte ACK = 0x04;
+    static final byte NAME = 0x05;
+    static final byte COLOR = 0x06;
+    static final byte CHAT = 0x07;
+    static final byte BUY = 0x08;
+
+    // El destino puede caer fuera del mundo (el mouse apunta más allá del borde): con signo y ±512 unidades
+    static final int AIM_SCALE = 64;
+
+    private InputProtocol() {
+    }
+
+    static boolean isBinary(ByteBuffer frame) {
+        return frame.hasRemaining() && frame.get(frame.position()) >= MOVE && frame.get(frame.position()) <= BUY;
+    }
+
+    // Escribe el comando en into sin asignar (salvo el texto de NAME, CHAT y BUY). Lee desde la posición actual
+    // del frame, que puede ser un buffer directo. Devuelve false para ACK, opcodes desconocidos y frames truncados.
+    static boolean decode(ByteBuffer frame, int playerId, long receivedNanos, InputCommand into) {
+        if (!frame.hasRemaining()) return false;
+        byte op = frame.get();
+        switch (op) {
+            case MOVE -> {
+                if (!frame.hasRemaining()) return false;
+                into.set(playerId, InputCommand.Kind.MOVE, frame.get() & 0x0F, 0, 0, null, receivedNanos);
+            }
+            case SHOOT -> {
+                double x = Double.NaN;
+                double y = Double.NaN;
+                if (frame.remaining() >= 4) {
+                    x = frame.getShort() / (double) AIM_SCALE;
+                    y = frame.getShort() / (double) AIM_SCALE;
+                }
+                into.set(playerId, InputCommand.Kind.SHOOT, 0, x, y, null, receivedNanos);
+            }
+            case SCANNER -> {
+                if (!frame.hasRemaining()) return false;
+                into.set(playerId, InputCommand.Kind.SCANNER, frame.get() != 0 ? 1 : 0, 0, 0, null, receivedNanos);
+            }
+            case NAME -> into.set(playerId, InputCommand.Kind.CHANGE_NAME, 0, 0, 0, text(frame), receivedNanos);
+            case COLOR -> into.set(playerId, InputCommand.Kind.CHANGE_COLOR, 0, 0, 0, null, receivedNanos);
+            case CHAT -> into.set(playerId, InputCommand.Kind.CHAT, 0, 0, 0, text(frame), receivedNanos);
+            case BUY -> into.set(playerId, InputCommand.Kind.BUY, 0, 0, 0, text(frame), receivedNanos);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // sq confirmado por un frame ACK, o -1 si el frame no lo es
+    static long ack(ByteBuffer frame) {
+        if (frame.remaining() < 5 || frame.get(frame.position()) != ACK) return -1;
+        return Integer.toUnsignedLong(frame.getInt(frame.position() + 1));
+    }
+
+    private static String text(ByteBuffer frame) {
+        return StandardCharsets.UTF_8.decode(frame).toString();
+    }
+}
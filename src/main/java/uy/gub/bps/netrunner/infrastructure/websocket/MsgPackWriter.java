@@ -0,0 +1,187 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import java.nio.ByteBuffer;
+
+// Escritor MessagePack mínimo sobre un ByteBuffer, sin objetos intermedios: enteros en su forma más corta,
+// reales en float64 y cadenas codificadas a UTF-8 carácter a carácter. Si el buffer no alcanza se pasa a uno
+// del doble de tamaño (del pool si hay uno, en el heap si no) copiando lo escrito.
+final class MsgPackWriter {
+    private final FramePool pool;
+    private ByteBuffer buffer;
+
+    MsgPackWriter(FramePool pool) {
+        this.pool = pool;
+    }
+
+    // Empieza a escribir en buffer desde su posición actual
+    MsgPackWriter reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        return this;
+    }
+
+    // Devuelve el buffer listo para leer (flip) y lo suelta: desde aquí es del llamador
+    ByteBuffer finish() {
+        ByteBuffer done = buffer.flip();
+        buffer = null;
+        return done;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    int position() {
+        return buffer.position();
+    }
+
+    // Clave corta ya codificada como fixstr
+    static byte[] key(String name) {
+        byte[] utf8 = name.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        if (utf8.length > 31) throw new IllegalArgumentException("Clave demasiado larga: " + name);
+        byte[] key = new byte[utf8.length + 1];
+        key[0] = (byte) (0xa0 | utf8.length);
+        System.arraycopy(utf8, 0, key, 1, utf8.length);
+        return key;
+    }
+
+    static int mapHeaderSize(int size) {
+        return size < 16 ? 1 : size < 0x10000 ? 3 : 5;
+    }
+
+    void mapHeader(int size) {
+        if (size < 16) {
+            ensure(1).put((byte) (0x80 | size));
+        } else if (size < 0x10000) {
+            ensure(3).put((byte) 0xde).putShort((short) size);
+        } else {
+            ensure(5).put((byte) 0xdf).putInt(size);
+        }
+    }
+
+    void arrayHeader(int size) {
+        if (size < 16) {
+            ensure(1).put((byte) (0x90 | size));
+        } else if (size < 0x10000) {
+            ensure(3).put((byte) 0xdc).putShort((short) size);
+        } else {
+            ensure(5).put((byte) 0xdd).putInt(size);
+        }
+    }
+
+    void nil() {
+        ensure(1).put((byte) 0xc0);
+    }
+
+    void bool(boolean value) {
+        ensure(1).put((byte) (value ? 0xc3 : 0xc2));
+    }
+
+    void integer(long value) {
+        if (value >= 0) {
+            if (value < 128) {
+                ensure(1).put((byte) value);
+            } else if (value < 0x100) {
+                ensure(2).put((byte) 0xcc).put((byte) value);
+            } else if (value < 0x10000) {
+                ensure(3).put((byte) 0xcd).putShort((short) value);
+            } else if (value < 0x100000000L) {
+                ensure(5).put((byte) 0xce).putInt((int) value);
+            } else {
+                ensure(9).put((byte) 0xcf).putLong(value);
+            }
+        } else if (value >= -32) {
+            ensure(1).put((byte) value);
+        } else if (value >= Byte.MIN_VALUE) {
+            ensure(2).put((byte) 0xd0).put((byte) value);
+        } else if (value >= Short.MIN_VALUE) {
+            ensure(3).put((byte) 0xd1).putShort((short) value);
+        } else if (value >= Integer.MIN_VALUE) {
+            ensure(5).put((byte) 0xd2).putInt((int) value);
+        } else {
+            ensure(9).put((byte) 0xd3).putLong(value);
+        }
+    }
+
+    void float64(double value) {
+        ensure(9).put((byte) 0xcb).putDouble(value);
+    }
+
+    void float32(float value) {
+        ensure(5).put((byte) 0xca).putFloat(value);
+    }
+
+    void string(String value) {
+        if (value == null) {
+            nil();
+            return;
+        }
+        int length = utf8Length(value);
+        if (length < 32) {
+            ensure(1 + length).put((byte) (0xa0 | length));
+        } else if (length < 0x100) {
+            ensure(2 + length).put((byte) 0xd9).put((byte) length);
+        } else if (length < 0x10000) {
+            ensure(3 + length).put((byte) 0xda).putShort((short) length);
+        } else {
+            ensure(5 + length).put((byte) 0xdb).putInt(length);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xc0 | (c >> 6))).put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xf0 | (cp >> 18))).put((byte) (0x80 | ((cp >> 12) & 0x3f)))
+                        .put((byte) (0x80 | ((cp >> 6) & 0x3f))).put((byte) (0x80 | (cp & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                // Surrogate suelto: '?' como hace String.getBytes
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xe0 | (c >> 12))).put((byte) (0x80 | ((c >> 6) & 0x3f))).put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+
+    void raw(byte[] bytes) {
+        ensure(bytes.length).put(bytes);
+    }
+
+    void raw(byte[] bytes, int offset, int length) {
+        ensure(length).put(bytes, offset, length);
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private ByteBuffer ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            int needed = buffer.position() + bytes;
+            ByteBuffer bigger = pool != null
+                    ? pool.acquire(Math.max(needed, buffer.capacity() * 2))
+                    : ByteBuffer.allocate(Math.max(needed, buffer.capacity() * 2));
+            bigger.put(buffer.flip());
+            if (pool != null) pool.release(buffer);
+            buffer = bigger;
+        }
+        return buffer;
+    }
+}
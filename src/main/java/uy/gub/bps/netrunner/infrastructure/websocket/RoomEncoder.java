@@ -0,0 +1,14 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+// Caches de codificación de una sala: se reinician en cada tick, así que salas difundidas en paralelo no pueden compartirlas
+class RoomEncoder {
+    final EntityEncodingCache entityCache;
+    final FrameEncoder frameEncoder;
+    final DeltaCompressor deltaCompressor;
+
+    RoomEncoder(FramePool framePool, boolean quantized) {
+        this.entityCache = new EntityEncodingCache(quantized);
+        this.frameEncoder = new FrameEncoder(framePool);
+        this.deltaCompressor = new DeltaCompressor(entityCache);
+    }
+}
@@ -0,0 +1,128 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uy.gub.bps.netrunner.domain.service.GameEngine;
+import uy.gub.bps.netrunner.domain.service.GameEngineFactory;
+import uy.gub.bps.netrunner.infrastructure.metrics.GameMetrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Salas de juego: cada una es un mundo independiente simulado por uno de los hilos de GameLoop.
+// El cliente puede pedir una sala por nombre; si no, se lo ubica en la sala más poblada que tenga lugar
+// (las partidas quedan concurridas) y solo se abre una nueva cuando todas están llenas.
+@Slf4j
+@Component
+public class RoomManager {
+
+    private static final Pattern ROOM_NAME = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private final GameEngineFactory engineFactory;
+    private final GameMetrics metrics;
+    private final int maxPlayers;
+    private final int maxRooms;
+    private final int shardCount;
+    private final Map<String, GameRoom> rooms = new ConcurrentHashMap<>();
+    private int nextRoomNumber = 1;
+
+    public RoomManager(GameEngineFactory engineFactory,
+                       GameMetrics metrics,
+                       @Value("${netrunner.rooms.default:main}") String defaultRoom,
+                       @Value("${netrunner.rooms.max-players:32}") int maxPlayers,
+                       @Value("${netrunner.rooms.max-rooms:64}") int maxRooms,
+                       @Value("${netrunner.loop.tick-threads:0}") int tickThreads) {
+        this.engineFactory = engineFactory;
+        this.metrics = metrics;
+        this.maxPlayers = Math.max(1, maxPlayers);
+        this.maxRooms = Math.max(1, maxRooms);
+        // Por defecto un pool chico: la mitad de los núcleos (las fases paralelas del tick usan el resto) y nunca más
+        // shards que salas posibles; cada shard suma un hilo de simulación y uno de difusión
+        this.shardCount = tickThreads > 0 ? tickThreads
+                : Math.min(this.maxRooms, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        metrics.bindRooms(rooms);
+        // La sala por defecto existe desde el arranque para que el primer jugador no espere la generación del mundo
+        open(defaultRoom, true);
+    }
+
+    // requested puede ser null o un nombre inválido: en ese caso decide la ocupación, igual que si la sala pedida está llena
+    public synchronized GameRoom join(String requested, String sessionId) {
+        GameRoom room = null;
+        if (requested != null && ROOM_NAME.matcher(requested).matches()) {
+            room = rooms.get(requested);
+            if (room == null && rooms.size() < maxRooms) {
+                room = open(requested, false);
+            } else if (room != null && room.getPlayerCount() >= maxPlayers) {
+                room = null;
+            }
+        }
+        if (room == null) {
+            room = matchmake();
+        }
+        room.sessionIds.add(sessionId);
+        return room;
+    }
+
+    // Devuelve true si la sala quedó vacía y se cerró
+    public synchronized boolean leave(GameRoom room, String sessionId) {
+        room.sessionIds.remove(sessionId);
+        if (!room.isPermanent() && room.sessionIds.isEmpty()) {
+            room.closed = true;
+            rooms.remove(room.getId());
+            room.getEngine().shutdown();
+            metrics.roomClosed(room.getId());
+            log.info("Room {} closed", room.getId());
+            return true;
+        }
+        return false;
+    }
+
+    private GameRoom matchmake() {
+        GameRoom fullest = rooms.values().stream()
+                .filter(r -> r.getPlayerCount() < maxPlayers)
+                .max(Comparator.comparingInt(GameRoom::getPlayerCount))
+                .orElse(null);
+        if (fullest != null) return fullest;
+        if (rooms.size() < maxRooms) {
+            String id;
+            do {
+                id = "arena-" + nextRoomNumber++;
+            } while (rooms.containsKey(id));
+            return open(id, false);
+        }
+        // Sin lugar para más salas: se sobrecarga la menos poblada
+        return rooms.values().stream().min(Comparator.comparingInt(GameRoom::getPlayerCount)).orElseThrow();
+    }
+
+    private GameRoom open(String id, boolean permanent) {
+        GameEngine engine = engineFactory.create();
+        GameRoom room = new GameRoom(id, engine, leastLoadedShard(), permanent);
+        rooms.put(id, room);
+        log.info("Room {} opened on tick shard {}", id, room.getShard());
+        return room;
+    }
+
+    // Reparte las salas entre los hilos de simulación por cantidad de salas
+    private int leastLoadedShard() {
+        int[] load = new int[shardCount];
+        rooms.values().forEach(r -> load[r.getShard()]++);
+        int best = 0;
+        for (int i = 1; i < shardCount; i++) {
+            if (load[i] < load[best]) best = i;
+        }
+        return best;
+    }
+
+    public Collection<GameRoom> getRooms() {
+        return Collections.unmodifiableCollection(rooms.values());
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+}
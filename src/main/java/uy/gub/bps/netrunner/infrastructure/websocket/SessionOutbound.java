@@ -0,0 +1,141 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Cola de salida de una sesión, drenada de forma asíncrona por un único envío a la vez.
+// Los frames de estado se reemplazan (solo importa el más nuevo); los eventos se conservan en orden.
+// Los frames son buffers del FramePool: vuelven al pool al enviarse o al descartarse.
+@Slf4j
+public class SessionOutbound {
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final int maxQueuedEvents;
+    private final FramePool framePool;
+
+    private final Queue<ByteBuffer> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedEvents = new AtomicInteger();
+    private final AtomicReference<ByteBuffer> pendingState = new AtomicReference<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicLong sentFrames = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    SessionOutbound(WebSocketSession session, Executor executor, int maxQueuedEvents, FramePool framePool) {
+        this.session = session;
+        this.executor = executor;
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.framePool = framePool;
+    }
+
+    void offerState(ByteBuffer frame) {
+        ByteBuffer stale = pendingState.getAndSet(frame);
+        if (stale != null) {
+            // El cliente no consumió el frame anterior a tiempo: queda obsoleto
+            droppedFrames.incrementAndGet();
+            framePool.release(stale);
+        }
+        scheduleDrain();
+    }
+
+    void offerEvent(ByteBuffer frame) {
+        if (queuedEvents.incrementAndGet() > maxQueuedEvents) {
+            // Cliente que no drena ni siquiera los eventos: se desconecta para no acumular memoria
+            log.warn("Session {} outbound queue full ({} events), closing", session.getId(), maxQueuedEvents);
+            framePool.release(frame);
+            close();
+            return;
+        }
+        events.add(frame);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (session.isOpen()) {
+                ByteBuffer frame = events.poll();
+                if (frame != null) {
+                    queuedEvents.decrementAndGet();
+                } else {
+                    frame = pendingState.getAndSet(null);
+                }
+                if (frame == null) break;
+
+                int size = frame.remaining();
+                try {
+                    // El envío es síncrono: al volver, el contenedor ya no usa el buffer
+                    session.sendMessage(new BinaryMessage(frame));
+                } finally {
+                    framePool.release(frame);
+                }
+                sentFrames.incrementAndGet();
+                sentBytes.addAndGet(size);
+            }
+        } catch (Exception e) {
+            log.debug("Error sending message to session {}: {}", session.getId(), e.getMessage());
+        } finally {
+            draining.set(false);
+            // Un frame pudo encolarse entre el último poll y la liberación del flag
+            if (session.isOpen() && (!events.isEmpty() || pendingState.get() != null)) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    // Devuelve al pool los frames que quedaron sin enviar al cerrarse la sesión
+    void discard() {
+        ByteBuffer frame;
+        while ((frame = events.poll()) != null) {
+            queuedEvents.decrementAndGet();
+            framePool.release(frame);
+        }
+        framePool.release(pendingState.getAndSet(null));
+    }
+
+    private void close() {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (Exception e) {
+            log.debug("Error closing session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    public String getSessionId() {
+        return session.getId();
+    }
+
+    public int getQueueDepth() {
+        return queuedEvents.get() + (pendingState.get() != null ? 1 : 0);
+    }
+
+    public long getSentFrames() {
+        return sentFrames.get();
+    }
+
+    public long getSentBytes() {
+        return sentBytes.get();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+}
@@ -905,12 +905,16 @@ window.addEventListener('mousedown', (e) => {
         const worldX = (e.clientX - canvas.width / 2 + panX) / (CELL_SIZE * cameraZoom) + myPlayer.position.x + 0.5;
         const worldY = (e.clientY - canvas.height / 2 + panY) / (CELL_SIZE * cameraZoom) + myPlayer.position.y + 0.5;
 
-        sendInput('SHOOT', `${worldX.toFixed(2)},${worldY.toFixed(2)}`);
+        sendInput('SHOOT', [worldX, worldY]);
     }
 });
 
+// Escalas de punto fijo anunciadas en el WELCOME (null = posiciones y velocidades en float64)
+let wireScale = null;
+
 function normalize(data) {
-    if (!data || typeof data !== 'object') return data;
+    // Cada objeto se normaliza una sola vez: la decodificación de velocidades no es idempotente
+    if (!data || typeof data !== 'object' || data._n) return data;
 
     const mapping = {
         'o': 'objects', 'ev': 'events', 'ef': 'effects',
@@ -919,7 +923,7 @@ function normalize(data) {
         'co': 'copper', 'si': 'silver', 'go': 'gold',
         'l': 'level', 'li': 'linkedId', 'e': 'exp', 'w': 'weapon', 't': 'type', 'sz': 'size',
         'am': 'autoMinerActive', 'tx': 'targetX', 'ty': 'targetY',
-        'pi': 'playerId', 'pn': 'playerName', 'd': 'payload', 'dbg': 'debugData', 'v': 'vibration', 'm': 'message'
+        'pi': 'playerId', 'pn': 'playerName', 'rm': 'room', 'd': 'payload', 'dbg': 'debugData', 'v': 'vibration', 'm': 'message'
     };
 
     for (const key in mapping) {
@@ -928,13 +932,114 @@ function normalize(data) {
         }
     }
 
+    if (Array.isArray(data.p) && wireScale) {
+        data.position = { x: data.p[0] / wireScale.position, y: data.p[1] / wireScale.position };
+    }
+    if (wireScale && data.i !== undefined) {
+        if (data.vx !== undefined) data.vx /= wireScale.velocity;
+        if (data.vy !== undefined) data.vy /= wireScale.velocity;
+    }
+
     if (data.objects) data.objects = data.objects.map(normalize);
     if (data.effects) data.effects = data.effects.map(normalize);
     if (data.weapon) data.weapon = normalize(data.weapon);
 
+    data._n = true;
     return data;
 }
 
+// Nombre y color conocidos de cada agente (handle), alimentados por los jugadores recibidos y los eventos
+const agents = new Map();
+
+function rememberAgents(objects) {
+    objects.forEach(obj => {
+        if (obj.maxHp !== undefined) agents.set(obj.id, { name: obj.name, color: obj.color });
+    });
+}
+
+function agentName(id) {
+    const agent = agents.get(id);
+    return agent ? agent.name : `#${id}`;
+}
+
+function agentColor(id) {
+    const agent = agents.get(id);
+    return agent ? agent.color : '#c9d1d9';
+}
+
+// Plantillas por código de evento (EventCode en el servidor); cada evento llega como [código, parámetros...]
+const EVENT_TEMPLATES = {
+    0: (text) => text,
+    1: (id, name, color) => {
+        agents.set(id, { name, color });
+        return `[#58a6ff]Agent ${name} uplink established.`;
+    },
+    2: (id) => {
+        const text = `[#f85149]Agent ${agentName(id)} connection lost.`;
+        agents.delete(id);
+        return text;
+    },
+    3: (id, color) => {
+        agents.set(id, { name: agentName(id), color });
+        return `[${color}]Agent ${agentName(id)} updated signature color.`;
+    },
+    4: (id, message) => `[${agentColor(id)}]${agentName(id)}: [#c9d1d9]${message}`,
+    5: (id, name) => {
+        const oldName = agentName(id);
+        agents.set(id, { name, color: agentColor(id) });
+        return `[#58a6ff]Agent ${oldName} re-identified as ${name}`;
+    },
+    6: (shooter, victim) => `[${agentColor(shooter)}]Agent ${agentName(shooter)} [#f85149]terminated [${agentColor(victim)}]Agent ${agentName(victim)}`,
+    7: (id) => `[#f85149]Agent ${agentName(id)} was decommissioned.`,
+    8: (id, level) => `[${agentColor(id)}]Agent ${agentName(id)} [#58a6ff]leveled up to Lvl ${level}!`,
+    9: (id) => `[#f85149]Agent ${agentName(id)} structural failure due to impact.`,
+    10: () => '[#ff4500]CRITICAL_ALERT: NULL detected in sector!',
+    11: () => '[#ff3300]SYSTEM_FAILURE: FIRE_WALL deployment detected. Brace for impact!',
+    12: () => '[#f85149]FIRE_WALL breached! System access granted.',
+    13: () => '[#ff4500]NULL neutralized!',
+    14: () => '[#f85149]Sentinel decommissioned.',
+    15: () => '[#3fb950]Wormhole stability lost. Collapse imminent...',
+    16: () => '[#00ff00]SYSTEM: Wormhole detected. Stabilizing connection (3s)...',
+    17: (remaining) => `[#00ff00]SYSTEM: Link stabilization in progress... ${remaining}s`,
+    18: () => '[#00ff00]SYSTEM: Quantum jump successful. Position recalibrated.',
+    19: (id, message) => `[#bc8cff][WHISPER] ${agentName(id)}: ${message}`,
+    20: (id, message) => `[#bc8cff][TO ${agentName(id)}]: ${message}`
+};
+
+function renderEvent(event) {
+    if (!Array.isArray(event)) return String(event);
+    const template = EVENT_TEMPLATES[event[0]];
+    return template ? template(...event.slice(1)) : `[#8b949e]EVENT_${event[0]}`;
+}
+
+// Frames diferenciales: estados reconstruidos por secuencia, indexados por id de entidad
+const DELTA_HISTORY = 64;
+const deltaFrames = new Map();
+
+function applyDelta(data) {
+    let entities;
+    if (data.bs) {
+        const base = deltaFrames.get(data.bs);
+        if (!base) return null; // Baseline desconocida: sin ACK el servidor reenvía el estado completo
+        entities = new Map(base);
+    } else {
+        entities = new Map();
+    }
+
+    (data.o || []).forEach(obj => entities.set(obj.i, normalize(obj)));
+    (data.u || []).forEach(changes => {
+        entities.set(changes.i, Object.assign({}, entities.get(changes.i), normalize(changes)));
+    });
+    (data.r || []).forEach(id => entities.delete(id));
+
+    deltaFrames.set(data.sq, entities);
+    if (deltaFrames.size > DELTA_HISTORY) {
+        deltaFrames.delete(deltaFrames.keys().next().value);
+    }
+    sendInput('ACK', data.sq);
+    return Array.from(entities.values());
+}
+
 function connect() {
     let wsUrl = window.CONFIG && window.CONFIG.WS_URL;
 
@@ -952,11 +1057,17 @@ function connect() {
         wsUrl = `${protocol}//${host}/game`;
     }
 
+    // ?room=<sala> en la página elige la sala; sin él el servidor asigna una por ocupación
+    const room = new URLSearchParams(window.location.search).get('room');
+    if (room) wsUrl += (wsUrl.includes('?') ? '&' : '?') + 'room=' + encodeURIComponent(room);
+
     log(`Initializing uplink to ${wsUrl}...`);
     socket = new WebSocket(wsUrl);
     socket.binaryType = 'arraybuffer';
 
     socket.onopen = () => {
+        deltaFrames.clear();
+        moveMask = 0;
         statusSpan.textContent = 'CONNECTED';
         statusSpan.className = 'status-tag connected';
         log('Uplink established.');
@@ -970,16 +1081,31 @@ function connect() {
             data = JSON.parse(event.data);
         }
 
+        // Reconstruir el estado completo si el frame es diferencial
+        const deltaObjects = data.sq !== undefined ? applyDelta(data) : null;
+        if (data.sq !== undefined && !deltaObjects) return;
+
         // Normalizar keys reducidas
         data = normalize(data);
+        if (deltaObjects) data.objects = deltaObjects;
 
         if (data.type === 'WELCOME') {
             myPlayerId = data.playerId;
+            wireScale = data.qp ? { position: data.qp, velocity: data.qv } : null;
             playerNameSpan.textContent = data.playerName;
             log(`Welcome, agent [#58a6ff]${data.playerName}`);
+            if (data.room) log(`Sector: [#d29922]${data.room}`);
             return;
         }
 
+        // Los eventos llegan en frames propios que el servidor nunca descarta
+        if (data.type === 'EV') {
+            data.events.forEach(e => log(renderEvent(e)));
+            return;
+        }
+
+        if (data.objects) rememberAgents(data.objects);
+
         // Medir latencia básica y sincronizar reloj
         const now = Date.now();
         if (data.timestamp) {
@@ -1018,7 +1144,7 @@ function connect() {
         
         // Procesar eventos
         if (gameState.events && gameState.events.length > 0) {
-            gameState.events.forEach(e => log(e));
+            gameState.events.forEach(e => log(renderEvent(e)));
         }
 
         // Procesar efectos visuales
@@ -1201,10 +1327,59 @@ function connect() {
     };
 }
 
+// Protocolo binario de entrada: opcode de un byte y argumentos big-endian (debe coincidir con InputProtocol)
+const OP_MOVE = 0x01, OP_SHOOT = 0x02, OP_SCANNER = 0x03, OP_ACK = 0x04;
+const OP_NAME = 0x05, OP_COLOR = 0x06, OP_CHAT = 0x07, OP_BUY = 0x08;
+const AIM_SCALE = 64;
+const MOVE_BITS = { UP: 1, DOWN: 2, LEFT: 4, RIGHT: 8 };
+const TEXT_OPS = { CHANGE_NAME: OP_NAME, CHAT: OP_CHAT, BUY: OP_BUY };
+const textEncoder = new TextEncoder();
+// Direcciones mantenidas; cada MOVE_START/MOVE_STOP envía la máscara completa
+let moveMask = 0;
+
+function encodeInput(type, payload) {
+    switch (type) {
+        case 'MOVE_START':
+        case 'MOVE_STOP': {
+            const bit = MOVE_BITS[payload] || 0;
+            moveMask = type === 'MOVE_START' ? moveMask | bit : moveMask & ~bit;
+            return Uint8Array.of(OP_MOVE, moveMask);
+        }
+        case 'SHOOT': {
+            // payload: [x, y] en coordenadas del mundo, o vacío para disparar hacia donde mira
+            if (!Array.isArray(payload)) return Uint8Array.of(OP_SHOOT);
+            const view = new DataView(new ArrayBuffer(5));
+            view.setUint8(0, OP_SHOOT);
+            view.setInt16(1, Math.max(-32768, Math.min(32767, Math.round(payload[0] * AIM_SCALE))));
+            view.setInt16(3, Math.max(-32768, Math.min(32767, Math.round(payload[1] * AIM_SCALE))));
+            return new Uint8Array(view.buffer);
+        }
+        case 'SCANNER_STATE':
+            return Uint8Array.of(OP_SCANNER, payload === 'true' ? 1 : 0);
+        case 'ACK': {
+            const view = new DataView(new ArrayBuffer(5));
+            view.setUint8(0, OP_ACK);
+            view.setUint32(1, payload >>> 0);
+            return new Uint8Array(view.buffer);
+        }
+        case 'CHANGE_COLOR':
+            return Uint8Array.of(OP_COLOR);
+        default: {
+            const op = TEXT_OPS[type];
+            if (!op) return null;
+            const text = textEncoder.encode(payload || '');
+            const frame = new Uint8Array(text.length + 1);
+            frame[0] = op;
+            frame.set(text, 1);
+            return frame;
+        }
+    }
+}
+
 function sendInput(type, payload) {
     if (socket && socket.readyState === WebSocket.OPEN) {
-        const msg = { t: type, d: payload };
-        socket.send(MessagePack.encode(msg));
+        const frame = encodeInput(type, payload);
+        if (frame) socket.send(frame);
     }
 }
 
@@ -1582,8 +1757,8 @@ function render() {
 
         // Efecto de flotación para ores sueltos (con aleatoriedad por ID)
         if (obj.name && obj.name.endsWith('_ORE')) {
-            const seed = obj.id.split('-')[0];
-            const offset = parseInt(seed, 16) || 0;
+            // Los ids son handles enteros correlativos: se dispersan con un hash multiplicativo
+            const offset = Math.imul(obj.id, 2654435761) >>> 0;
             const bobTime = (now + offset) * 0.002;
             const speedMod = 1 + (offset % 100) / 400; // Variación de velocidad ±12.5%
             
@@ -0,0 +1,199 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Contrasta un SpatialIndex con un recorrido exhaustivo de los objetos que deberían estar en él,
+// después de secuencias aleatorias de altas, movimientos, bajas y sweeps
+abstract class AbstractSpatialIndexTest {
+
+    private static final double SIZE = 200;
+    private static final QuadTree.Rectangle WORLD = new QuadTree.Rectangle(SIZE / 2, SIZE / 2, SIZE / 2, SIZE / 2);
+
+    abstract SpatialIndex newIndex(QuadTree.Rectangle boundary);
+
+    @Test
+    void matchesBruteForceUnderRandomOperations() {
+        for (long seed = 1; seed <= 5; seed++) {
+            run(new Random(seed));
+        }
+    }
+
+    @Test
+    void objectsMovedOutsideTheBoundaryAreDropped() {
+        SpatialIndex index = newIndex(WORLD);
+        GameObject obj = entity(EntityKind.ORE, 1, 10, 10);
+        assertTrue(index.insert(obj));
+
+        obj.setPosition(new Position(-5, 10));
+        assertFalse(index.update(obj));
+        assertEquals(0, index.size());
+        assertFalse(index.remove(obj));
+        assertFalse(index.insert(entity(EntityKind.ORE, 2, SIZE + 1, 10)));
+        assertNull(index.findFirst(10, 10, SIZE, SIZE, o -> true));
+    }
+
+    @Test
+    void sweepKeepsOnlyTouchedObjects() {
+        SpatialIndex index = newIndex(WORLD);
+        List<GameObject> all = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            GameObject obj = entity(EntityKind.SENTINEL, i + 1, 5 + i * 3, 5 + i * 3);
+            all.add(obj);
+            index.insert(obj);
+        }
+        // Lo insertado desde el sweep anterior sobrevive al siguiente
+        index.sweep();
+        assertEquals(all.size(), index.size());
+
+        for (int i = 0; i < all.size(); i += 2) {
+            index.update(all.get(i));
+        }
+        index.sweep();
+        assertEquals(all.size() / 2, index.size());
+        for (int i = 0; i < all.size(); i++) {
+            GameObject obj = all.get(i);
+            GameObject found = index.findFirst(obj.getPosition().x(), obj.getPosition().y(), 0.1, 0.1, o -> o == obj);
+            assertEquals(i % 2 == 0, found == obj);
+        }
+    }
+
+    private void run(Random random) {
+        SpatialIndex index = newIndex(WORLD);
+        Set<GameObject> live = identitySet();
+        Set<GameObject> touched = identitySet();
+        List<GameObject> known = new ArrayList<>();
+        int nextId = 1;
+
+        for (int step = 0; step < 4000; step++) {
+            int op = random.nextInt(100);
+            if (op < 35 || known.isEmpty()) {
+                // Alta, a veces en grupos sobre el mismo punto para forzar subdivisiones profundas
+                GameObject obj = entity(randomKind(random), nextId++, coordinate(random), coordinate(random));
+                if (random.nextInt(10) == 0) obj.setPosition(new Position(50, 50));
+                if (random.nextInt(50) == 0) obj.setPosition(new Position(-1 - random.nextInt(10), 10));
+                boolean inside = WORLD.contains(obj.getPosition());
+                assertEquals(inside, index.insert(obj));
+                if (inside) {
+                    live.add(obj);
+                    touched.add(obj);
+                    known.add(obj);
+                }
+            } else if (op < 75) {
+                // Movimiento: corto la mayoría de las veces, a veces a través del mapa o fuera de él
+                GameObject obj = known.get(random.nextInt(known.size()));
+                Position p = obj.getPosition();
+                Position moved = switch (random.nextInt(10)) {
+                    case 0 -> new Position(coordinate(random), coordinate(random));
+                    case 1 -> new Position(SIZE + 5, p.y());
+                    default -> new Position(p.x() + random.nextGaussian() * 2, p.y() + random.nextGaussian() * 2);
+                };
+                obj.setPosition(moved);
+                boolean inside = WORLD.contains(moved);
+                assertEquals(inside, index.update(obj));
+                if (inside) {
+                    live.add(obj);
+                    touched.add(obj);
+                } else {
+                    live.remove(obj);
+                    touched.remove(obj);
+                    known.remove(obj);
+                }
+            } else if (op < 95) {
+                GameObject obj = known.remove(random.nextInt(known.size()));
+                assertEquals(live.remove(obj), index.remove(obj));
+                touched.remove(obj);
+            } else {
+                // Sweep: sobreviven los insertados o actualizados desde el anterior
+                for (GameObject obj : known) {
+                    if (random.nextBoolean()) {
+                        index.update(obj);
+                        touched.add(obj);
+                    }
+                }
+                index.sweep();
+                live.retainAll(touched);
+                known.removeIf(obj -> !live.contains(obj));
+                touched.clear();
+            }
+
+            assertEquals(live.size(), index.size());
+            if (step % 10 == 0) {
+                assertQueriesMatch(index, live, random);
+            }
+        }
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertNull(index.findFirst(SIZE / 2, SIZE / 2, SIZE, SIZE, o -> true));
+    }
+
+    private void assertQueriesMatch(SpatialIndex index, Set<GameObject> live, Random random) {
+        for (int q = 0; q < 5; q++) {
+            double x = coordinate(random);
+            double y = coordinate(random);
+            double w = random.nextDouble() * 30;
+            double h = random.nextDouble() * 30;
+            int kinds = random.nextBoolean() ? EntityKind.ALL : 1 + random.nextInt(EntityKind.ALL);
+
+            Set<GameObject> expected = identitySet();
+            for (GameObject obj : live) {
+                if (inRange(obj, x, y, w, h) && (obj.kind().bit() & kinds) != 0) expected.add(obj);
+            }
+
+            Set<GameObject> found = identitySet();
+            index.query(x, y, w, h, kinds, obj -> assertTrue(found.add(obj), "objeto repetido en la consulta"));
+            assertEquals(expected, found);
+
+            Predicate<GameObject> odd = obj -> obj.getId() % 2 == 1;
+            GameObject first = index.findFirst(x, y, w, h, kinds, odd);
+            if (expected.stream().anyMatch(odd)) {
+                assertNotNull(first);
+                assertTrue(expected.contains(first) && odd.test(first));
+            } else {
+                assertNull(first);
+            }
+        }
+    }
+
+    private static boolean inRange(GameObject obj, double x, double y, double w, double h) {
+        Position p = obj.getPosition();
+        return p.x() >= x - w && p.x() <= x + w && p.y() >= y - h && p.y() <= y + h;
+    }
+
+    private static double coordinate(Random random) {
+        return random.nextDouble() * SIZE;
+    }
+
+    private static EntityKind randomKind(Random random) {
+        EntityKind[] kinds = {EntityKind.PLAYER, EntityKind.SENTINEL, EntityKind.ORE, EntityKind.METEORITE};
+        return kinds[random.nextInt(kinds.length)];
+    }
+
+    static GameObject entity(EntityKind kind, int id, double x, double y) {
+        Position position = new Position(x, y);
+        return switch (kind) {
+            case PLAYER -> Player.builder().id(id).position(position).build();
+            case SENTINEL -> Sentinel.builder().id(id).position(position).build();
+            case METEORITE -> Meteorite.builder().id(id).position(position).build();
+            default -> Ore.builder().id(id).type(Ore.OreType.COPPER).position(position).build();
+        };
+    }
+
+    private static Set<GameObject> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
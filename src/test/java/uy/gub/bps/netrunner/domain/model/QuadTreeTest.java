@@ -0,0 +1,10 @@
+package uy.gub.bps.netrunner.domain.model;
+
+// Capacidad baja para que las altas y bajas subdividan y fusionen nodos todo el tiempo
+class QuadTreeTest extends AbstractSpatialIndexTest {
+
+    @Override
+    SpatialIndex newIndex(QuadTree.Rectangle boundary) {
+        return new QuadTree(boundary, 4);
+    }
+}
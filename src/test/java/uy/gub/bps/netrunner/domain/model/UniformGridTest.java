@@ -0,0 +1,51 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniformGridTest extends AbstractSpatialIndexTest {
+
+    @Override
+    SpatialIndex newIndex(QuadTree.Rectangle boundary) {
+        return new UniformGrid(boundary, UniformGrid.DEFAULT_CELL_SIZE);
+    }
+
+    // Más objetos que los slots iniciales: crecen los arreglos y la tabla de claves, y las bajas intercaladas
+    // obligan a removeKey a reacomodar las cadenas de colisiones
+    @Test
+    void keyTableSurvivesGrowthAndInterleavedRemovals() {
+        UniformGrid grid = new UniformGrid(new QuadTree.Rectangle(100, 100, 100, 100), 4.0);
+        List<GameObject> all = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            GameObject obj = entity(EntityKind.ORE, i + 1, (i * 7) % 200, (i * 13) % 200);
+            all.add(obj);
+            assertTrue(grid.insert(obj));
+        }
+        for (int i = 0; i < all.size(); i += 2) {
+            assertTrue(grid.remove(all.get(i)));
+            assertFalse(grid.remove(all.get(i)));
+        }
+        assertEquals(all.size() / 2, grid.size());
+
+        // Los que quedan se siguen encontrando, y los slots liberados se reutilizan
+        for (int i = 0; i < all.size(); i++) {
+            GameObject obj = all.get(i);
+            GameObject found = grid.findFirst(obj.getPosition().x(), obj.getPosition().y(), 0, 0, o -> o == obj);
+            if (i % 2 == 1) {
+                assertSame(obj, found);
+            } else {
+                assertNull(found);
+                assertTrue(grid.insert(obj));
+            }
+        }
+        assertEquals(all.size(), grid.size());
+    }
+}
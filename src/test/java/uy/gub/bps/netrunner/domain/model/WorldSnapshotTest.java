@@ -0,0 +1,36 @@
+package uy.gub.bps.netrunner.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorldSnapshotTest {
+
+    @Test
+    void replacingSnapshotKeepsEarlierEventsFirst() {
+        GameEvent joined = new GameEvent(EventCode.PLAYER_JOINED, 1, "a", "#fff");
+        GameEvent teleported = new GameEvent(EventCode.TELEPORTED);
+        GameEvent kill = new GameEvent(EventCode.KILL, 1, 2);
+        GameEvent detected = new GameEvent(EventCode.WORMHOLE_DETECTED);
+        GameEvent levelUp = new GameEvent(EventCode.LEVEL_UP, 2, 3);
+
+        WorldSnapshot stale = WorldSnapshot.builder().tick(1)
+                .events(List.of(joined))
+                .privateEvents(Map.of(1, List.of(teleported)))
+                .build();
+        WorldSnapshot fresh = WorldSnapshot.builder().tick(2)
+                .events(List.of(kill))
+                .privateEvents(Map.of(1, List.of(detected), 2, List.of(levelUp)))
+                .build();
+
+        WorldSnapshot merged = fresh.after(stale);
+        assertEquals(2, merged.getTick());
+        assertEquals(List.of(joined, kill), merged.getEvents());
+        assertEquals(List.of(teleported, detected), merged.privateEventsFor(1));
+        assertEquals(List.of(levelUp), merged.privateEventsFor(2));
+        assertEquals(List.of(kill), fresh.getEvents());
+    }
+}
@@ -0,0 +1,135 @@
+package uy.gub.bps.netrunner.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandRingTest {
+
+    @Test
+    void wrapsAroundPastCapacity() {
+        CommandRing ring = new CommandRing(4);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(ring.offer(command(1, next++)));
+            }
+            InputCommand polled;
+            while ((polled = ring.poll()) != null) {
+                assertEquals(expected++, polled.value());
+            }
+            ring.release();
+        }
+        assertEquals(30, expected);
+    }
+
+    @Test
+    void offerFailsWhenFullUntilReleased() {
+        CommandRing ring = new CommandRing(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(command(1, i)));
+        }
+        assertFalse(ring.offer(command(1, 4)));
+
+        // Leídas pero sin liberar: las celdas siguen siendo del consumidor
+        assertEquals(0, ring.poll().value());
+        assertEquals(1, ring.poll().value());
+        assertFalse(ring.offer(command(1, 4)));
+
+        ring.release();
+        assertTrue(ring.offer(command(1, 4)));
+        assertTrue(ring.offer(command(1, 5)));
+        assertFalse(ring.offer(command(1, 6)));
+    }
+
+    @Test
+    void cellIsReusedOnlyAfterRelease() {
+        CommandRing ring = new CommandRing(2);
+        assertTrue(ring.offer(command(1, 10)));
+        InputCommand first = ring.poll();
+        assertEquals(10, first.value());
+
+        assertTrue(ring.offer(command(1, 11)));
+        assertFalse(ring.offer(command(1, 12)));
+        // Ningún productor pisó la celda que el consumidor todavía está leyendo
+        assertEquals(10, first.value());
+        assertEquals(1, first.playerId());
+
+        ring.release();
+        assertTrue(ring.offer(command(1, 12)));
+        assertEquals(11, ring.poll().value());
+        InputCommand reused = ring.poll();
+        assertSame(first, reused);
+        assertEquals(12, reused.value());
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 20_000;
+        CommandRing ring = new CommandRing(256);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                InputCommand command = new InputCommand();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    command(command, producer, i);
+                    while (!ring.offer(command)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // Cada productor publica en orden: el consumidor debe ver 0, 1, 2... de cada uno, sin huecos ni repetidos
+        int[] nextByProducer = new int[producers];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        start.countDown();
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            InputCommand polled;
+            while ((polled = ring.poll()) != null) {
+                assertEquals(nextByProducer[polled.playerId()]++, polled.value());
+                received++;
+            }
+            ring.release();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        assertEquals(producers * perProducer, received);
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, nextByProducer[p]);
+        }
+        assertNull(ring.poll());
+    }
+
+    private static InputCommand command(int playerId, int value) {
+        return command(new InputCommand(), playerId, value);
+    }
+
+    private static InputCommand command(InputCommand command, int playerId, int value) {
+        return command.set(playerId, InputCommand.Kind.MOVE, value, 0, 0, null, 0);
+    }
+}
@@ -0,0 +1,116 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import org.junit.jupiter.api.Test;
+import uy.gub.bps.netrunner.domain.model.GameObject;
+import uy.gub.bps.netrunner.domain.model.Ore;
+import uy.gub.bps.netrunner.domain.model.Player;
+import uy.gub.bps.netrunner.domain.model.Position;
+import uy.gub.bps.netrunner.domain.model.Sentinel;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaCompressorTest {
+
+    private final EntityEncodingCache cache = new EntityEncodingCache(false);
+    private final DeltaCompressor compressor = new DeltaCompressor(cache);
+    private final DeltaCompressor.ClientBaseline client = new DeltaCompressor.ClientBaseline();
+
+    @Test
+    void outOfOrderAndFutureAcksAreIgnored() {
+        Player viewer = player(1, 10, 10);
+        for (int i = 0; i < 3; i++) {
+            encode(viewer, List.of(viewer), 0);
+        }
+
+        client.ack(2);
+        assertEquals(2, client.getAckedSequence());
+        // Desordenado: más viejo que el confirmado
+        client.ack(1);
+        assertEquals(2, client.getAckedSequence());
+        // Futuro: todavía no se envió
+        client.ack(4);
+        assertEquals(2, client.getAckedSequence());
+        client.ack(3);
+        assertEquals(3, client.getAckedSequence());
+    }
+
+    @Test
+    void evictedBaselineFallsBackToFullFrame() {
+        Player viewer = player(1, 10, 10);
+        Ore ore = ore(2, 12, 12);
+        List<GameObject> visible = List.of(viewer, ore);
+
+        DeltaCompressor.Delta first = encode(viewer, visible, 0);
+        client.ack(first.sequence());
+        for (int i = 0; i < DeltaCompressor.HISTORY_SIZE; i++) {
+            assertEquals(first.sequence(), encode(viewer, visible, 0).baseline());
+        }
+
+        // La baseline confirmada ya salió del historial: frame completo con bs=0
+        DeltaCompressor.Delta full = encode(viewer, visible, 0);
+        assertEquals(0, full.baseline());
+        assertEquals(visible.size(), full.created().size());
+        assertTrue(full.updated().isEmpty());
+        assertTrue(full.removed().isEmpty());
+    }
+
+    @Test
+    void budgetDeferredUpdateKeepsPreviousVersion() {
+        Player viewer = player(1, 10, 10);
+        DeltaCompressor.Delta first = encode(viewer, List.of(viewer, player(2, 15, 15)), 0);
+        client.ack(first.sequence());
+
+        // El otro jugador se movió pero no entra en el presupuesto
+        DeltaCompressor.Delta tight = encode(viewer, List.of(viewer, player(2, 16, 15)), 1);
+        assertEquals(1, tight.deferred());
+        assertTrue(tight.created().isEmpty());
+        assertTrue(tight.updated().isEmpty());
+        assertFalse(tight.removed().contains(2));
+
+        // Con ese frame como baseline el cambio sigue pendiente y viaja como actualización, no como alta
+        client.ack(tight.sequence());
+        DeltaCompressor.Delta next = encode(viewer, List.of(viewer, player(2, 16, 15)), 0);
+        assertEquals(tight.sequence(), next.baseline());
+        assertTrue(next.created().isEmpty());
+        assertEquals(1, next.updated().size());
+        assertEquals(2, next.updated().get(0).entity().getId());
+        assertTrue(next.removed().isEmpty());
+    }
+
+    @Test
+    void handleReusedByAnotherKindIsResentInFull() {
+        Player viewer = player(1, 10, 10);
+        DeltaCompressor.Delta first = encode(viewer, List.of(viewer, ore(7, 12, 12)), 0);
+        client.ack(first.sequence());
+
+        Sentinel sentinel = Sentinel.builder().id(7).name("S").symbol("{X}").color("#f85149")
+                .position(new Position(12, 12)).build();
+        cache.beginTick();
+        assertEquals(-1, cache.get(sentinel).changedSince(cache.get(ore(7, 12, 12))));
+
+        DeltaCompressor.Delta next = encode(viewer, List.of(viewer, sentinel), 0);
+        assertEquals(1, next.created().size());
+        assertEquals(7, next.created().get(0).getId());
+        assertTrue(next.updated().isEmpty());
+        assertTrue(next.removed().isEmpty());
+    }
+
+    private DeltaCompressor.Delta encode(Player viewer, List<GameObject> visible, int budget) {
+        cache.beginTick();
+        return compressor.encode(client, viewer, visible, budget);
+    }
+
+    // Objetos nuevos en cada frame, como las copias de los snapshots
+    private static Player player(int id, double x, double y) {
+        return Player.builder().id(id).name("Player-" + id).symbol("[P]").color("#58a6ff")
+                .position(new Position(x, y)).build();
+    }
+
+    private static Ore ore(int id, double x, double y) {
+        return Ore.builder().id(id).type(Ore.OreType.COPPER).position(new Position(x, y)).build();
+    }
+}
@@ -0,0 +1,86 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import org.junit.jupiter.api.Test;
+import uy.gub.bps.netrunner.domain.service.InputCommand;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputProtocolTest {
+
+    private final InputCommand command = new InputCommand();
+
+    @Test
+    void moveAndScannerWithoutArgumentAreRejected() {
+        assertFalse(decode(InputProtocol.MOVE));
+        assertFalse(decode(InputProtocol.SCANNER));
+
+        assertTrue(decode(InputProtocol.MOVE, (byte) (InputCommand.UP | InputCommand.LEFT)));
+        assertEquals(InputCommand.Kind.MOVE, command.kind());
+        assertEquals(InputCommand.UP | InputCommand.LEFT, command.value());
+        assertTrue(decode(InputProtocol.SCANNER, (byte) 1));
+        assertEquals(InputCommand.Kind.SCANNER, command.kind());
+        assertEquals(1, command.value());
+    }
+
+    @Test
+    void truncatedShootAimsWhereThePlayerFaces() {
+        for (int length = 0; length < 4; length++) {
+            byte[] frame = new byte[1 + length];
+            frame[0] = InputProtocol.SHOOT;
+            assertTrue(decode(frame));
+            assertEquals(InputCommand.Kind.SHOOT, command.kind());
+            assertTrue(Double.isNaN(command.x()));
+            assertTrue(Double.isNaN(command.y()));
+            assertFalse(command.aimed());
+        }
+
+        // Completo: i16 en punto fijo, con signo
+        ByteBuffer frame = ByteBuffer.allocate(5).put(InputProtocol.SHOOT)
+                .putShort((short) (10 * InputProtocol.AIM_SCALE))
+                .putShort((short) (-2 * InputProtocol.AIM_SCALE))
+                .flip();
+        assertTrue(InputProtocol.decode(frame, 7, 0, command));
+        assertEquals(10.0, command.x());
+        assertEquals(-2.0, command.y());
+        assertEquals(7, command.playerId());
+    }
+
+    @Test
+    void shortAckIsNeitherAckedNorDecoded() {
+        for (int length = 0; length < 4; length++) {
+            ByteBuffer frame = ByteBuffer.allocate(1 + length).put(0, InputProtocol.ACK);
+            assertEquals(-1, InputProtocol.ack(frame));
+            assertFalse(InputProtocol.decode(frame, 1, 0, command));
+        }
+
+        ByteBuffer full = ByteBuffer.allocate(5).put(InputProtocol.ACK).putInt(0xFFFFFFFE).flip();
+        assertEquals(0xFFFFFFFEL, InputProtocol.ack(full));
+        assertEquals(0, full.position());
+    }
+
+    @Test
+    void unknownOpcodeIsRejected() {
+        ByteBuffer frame = ByteBuffer.wrap(new byte[]{0x09, 1, 2});
+        assertFalse(InputProtocol.isBinary(frame));
+        assertFalse(InputProtocol.decode(frame, 1, 0, command));
+        assertFalse(decode());
+    }
+
+    @Test
+    void decodesFromCurrentPositionOfDirectBuffer() {
+        ByteBuffer frame = ByteBuffer.allocateDirect(4).put((byte) 0x7B).put(InputProtocol.MOVE).put((byte) InputCommand.DOWN).flip();
+        frame.position(1);
+        assertTrue(InputProtocol.isBinary(frame));
+        assertTrue(InputProtocol.decode(frame, 3, 42, command));
+        assertEquals(InputCommand.DOWN, command.value());
+        assertEquals(42, command.receivedNanos());
+    }
+
+    private boolean decode(byte... frame) {
+        return InputProtocol.decode(ByteBuffer.wrap(frame), 1, 0, command);
+    }
+}
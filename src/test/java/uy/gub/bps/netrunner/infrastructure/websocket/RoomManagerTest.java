@@ -0,0 +1,78 @@
+package uy.gub.bps.netrunner.infrastructure.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uy.gub.bps.netrunner.domain.model.InputMessage;
+import uy.gub.bps.netrunner.domain.model.Player;
+import uy.gub.bps.netrunner.domain.model.SpatialIndexType;
+import uy.gub.bps.netrunner.domain.service.GameEngine;
+import uy.gub.bps.netrunner.domain.service.GameEngineFactory;
+import uy.gub.bps.netrunner.infrastructure.metrics.GameMetrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomManagerTest {
+
+    private final GameEngineFactory factory = new GameEngineFactory(30, SpatialIndexType.GRID, 1);
+    private final RoomManager rooms = new RoomManager(factory, new GameMetrics(new SimpleMeterRegistry(), 30, false), "main", 32, 64, 1);
+
+    @AfterEach
+    void tearDown() {
+        factory.shutdown();
+    }
+
+    @Test
+    void closingRoomsReleasesTheirHandles() {
+        int baseline = liveHandles();
+
+        for (int i = 0; i < 20; i++) {
+            String sessionId = "session-" + i;
+            GameRoom room = rooms.join("loop", sessionId);
+            GameEngine engine = room.getEngine();
+            Player player = engine.addPlayer("Player-" + i);
+            // Unos ticks con disparos para que haya centinelas, proyectiles y minerales vivos al cerrar
+            for (int tick = 0; tick < 40; tick++) {
+                engine.processInput(player.getId(), new InputMessage("SHOOT", (100 + tick) + ",100"));
+                engine.update();
+            }
+            assertTrue(engine.liveHandles() > 0);
+
+            engine.removePlayer(player.getId());
+            assertTrue(rooms.leave(room, sessionId));
+            assertEquals(0, engine.liveHandles());
+            assertEquals(baseline, liveHandles());
+        }
+    }
+
+    @Test
+    void updateAfterShutdownIsIgnored() {
+        GameRoom room = rooms.join("closed", "session");
+        GameEngine engine = room.getEngine();
+        engine.addPlayer("Player");
+        assertTrue(rooms.leave(room, "session"));
+
+        engine.update();
+        assertEquals(0, engine.liveHandles());
+        assertFalse(rooms.getRooms().contains(room));
+    }
+
+    @Test
+    void fullRoomRequestedByNameFallsBackToMatchmaking() {
+        RoomManager small = new RoomManager(factory, new GameMetrics(new SimpleMeterRegistry(), 30, false), "main", 2, 4, 1);
+        assertEquals("main", small.join("main", "a").getId());
+        assertEquals("main", small.join("main", "b").getId());
+
+        GameRoom overflow = small.join("main", "c");
+        assertNotEquals("main", overflow.getId());
+        assertEquals(1, overflow.getPlayerCount());
+        assertEquals(2, small.getRooms().stream().filter(r -> r.getId().equals("main")).findFirst().orElseThrow().getPlayerCount());
+    }
+
+    private int liveHandles() {
+        return rooms.getRooms().stream().mapToInt(r -> r.getEngine().liveHandles()).sum();
+    }
+}